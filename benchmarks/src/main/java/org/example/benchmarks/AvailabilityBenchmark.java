@@ -0,0 +1,105 @@
+package org.example.benchmarks;
+
+import org.example.booking.dto.AvailableRoomResponse;
+import org.example.booking.entity.Booking;
+import org.example.booking.entity.Status;
+import org.example.booking.repository.BookingRepository;
+import org.example.booking.service.AvailabilityService;
+import org.example.booking.service.RoomOccupancyIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code AvailabilityService.getAvailableRooms} over a catalog of {@code rooms} rooms where every
+ * 10th room is booked for the searched dates. The catalog is cached after setup, so this measures
+ * the overlap evaluation, not the hotel-service call.
+ * <ul>
+ *     <li>{@code INDEX}: answered from the in-memory occupancy index.</li>
+ *     <li>{@code DATABASE}: index disabled, sequential chunked queries.</li>
+ *     <li>{@code DATABASE_PARALLEL}: index disabled, chunks evaluated concurrently.</li>
+ * </ul>
+ * {@code limit = 0} asks for every free room.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvailabilityBenchmark {
+
+    public enum Evaluation {
+        INDEX,
+        DATABASE,
+        DATABASE_PARALLEL
+    }
+
+    @Param({"1000", "10000", "100000"})
+    public int rooms;
+
+    @Param({"INDEX", "DATABASE", "DATABASE_PARALLEL"})
+    public Evaluation evaluation;
+
+    @Param({"0", "20"})
+    public int limit;
+
+    private ConfigurableApplicationContext context;
+    private AvailabilityService availabilityService;
+
+    private final LocalDate start = LocalDate.now().plusDays(10);
+    private final LocalDate end = start.plusDays(3);
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = BookingContext.start(
+                "booking.availability.index.enabled=" + (evaluation == Evaluation.INDEX),
+                "booking.availability.parallel.enabled=" + (evaluation == Evaluation.DATABASE_PARALLEL)
+        );
+        context.getBean(StubHotelClient.class).setRoomCount(rooms);
+        availabilityService = context.getBean(AvailabilityService.class);
+
+        List<Booking> bookings = new ArrayList<>();
+        for (long roomId = 10; roomId <= rooms; roomId += 10) {
+            bookings.add(Booking.builder()
+                    .userId(1L)
+                    .hotelId(roomId % StubHotelClient.HOTELS + 1)
+                    .roomId(roomId)
+                    .startDate(start.minusDays(1))
+                    .endDate(start.plusDays(1))
+                    .status(Status.CONFIRMED)
+                    .build());
+        }
+        context.getBean(BookingRepository.class).saveAll(bookings);
+        if (evaluation == Evaluation.INDEX) {
+            context.getBean(RoomOccupancyIndex.class).rebuild();
+        }
+        search();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<AvailableRoomResponse> search() {
+        return availabilityService.getAvailableRooms(start, end, null, limit > 0 ? limit : null, false);
+    }
+}
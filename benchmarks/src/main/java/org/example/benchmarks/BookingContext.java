@@ -0,0 +1,45 @@
+package org.example.benchmarks;
+
+import org.example.booking.BookingServiceApp;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.UUID;
+
+/**
+ * Starts booking-service the way the benchmarks need it: private in-memory H2 database,
+ * no Eureka, quiet logging and {@link StubHotelClient} instead of the remote hotel-service.
+ */
+final class BookingContext {
+
+    private BookingContext() {
+    }
+
+    static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(BookingServiceApp.class, StubHotelClientConfig.class)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "eureka.client.enabled=false",
+                        "spring.cloud.discovery.enabled=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.example.booking=ERROR"
+                )
+                .properties(properties)
+                .run();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class StubHotelClientConfig {
+        @Bean
+        @Primary
+        StubHotelClient stubHotelClient() {
+            return new StubHotelClient();
+        }
+    }
+}
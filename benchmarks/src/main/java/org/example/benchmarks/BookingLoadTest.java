@@ -0,0 +1,192 @@
+package org.example.benchmarks;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load test of {@code POST /api/bookings/bookings} with request handling on platform
+ * threads (Tomcat's pool) and on virtual threads ({@code spring.threads.virtual.enabled}), reporting
+ * throughput and latency percentiles per mode.
+ * <p>
+ * {@code clients} concurrent clients each send their next booking as soon as the previous one is
+ * answered, every booking on its own room so admission doesn't serialize them. The hotel-service confirm
+ * is {@link StubHotelClient} blocking for {@code hotelLatencyMs}, which is what request threads spend
+ * most of their time on. Requests started during the warm-up are not counted. Virtual threads need
+ * Java 21; on older runtimes that mode is skipped.
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar org.example.benchmarks.BookingLoadTest \
+ *     [clients=2000] [seconds=30] [warmupSeconds=10] [hotelLatencyMs=100] [modes=platform,virtual]
+ * </pre>
+ */
+public final class BookingLoadTest {
+
+    private BookingLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = intArg(args, "clients", 2000);
+        int seconds = intArg(args, "seconds", 30);
+        int warmupSeconds = intArg(args, "warmupSeconds", 10);
+        int hotelLatencyMs = intArg(args, "hotelLatencyMs", 100);
+        List<String> modes = Arrays.asList(arg(args, "modes", "platform,virtual").split(","));
+
+        for (String mode : modes) {
+            boolean virtual = mode.equals("virtual");
+            if (virtual && Runtime.version().feature() < 21) {
+                System.out.println("virtual: skipped, needs Java 21+ (running " + Runtime.version() + ")");
+                continue;
+            }
+            Result result = run(virtual, clients, seconds, warmupSeconds, hotelLatencyMs);
+            System.out.println(mode + ": " + result);
+        }
+    }
+
+    private static Result run(boolean virtual, int clients, int seconds, int warmupSeconds, int hotelLatencyMs)
+            throws Exception {
+        ConfigurableApplicationContext context = BookingContext.start(
+                "spring.threads.virtual.enabled=" + virtual,
+                // stripes well above the number of requests in flight, see booking.admission.stripes
+                "booking.admission.stripes=" + Math.max(4096, clients * 2),
+                "booking.outbox.enabled=false");
+        try {
+            context.getBean(StubHotelClient.class).setLatency(Duration.ofMillis(hotelLatencyMs));
+            String baseUrl = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            String token = token(context);
+
+            long start = System.nanoTime();
+            long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+            long end = measureFrom + TimeUnit.SECONDS.toNanos(seconds);
+            Run run = new Run(http, baseUrl, token, measureFrom, end);
+            CompletableFuture<?>[] loops = new CompletableFuture<?>[clients];
+            for (int i = 0; i < clients; i++) {
+                loops[i] = run.loop();
+            }
+            CompletableFuture.allOf(loops).join();
+            return run.result(seconds);
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * Token of the seeded demo user, signed with the service's own encoder. Signed here with an explicit
+     * HS256 header because {@code /user/auth} currently asks the encoder for its default RS256 key, which
+     * the HMAC-only key source doesn't have.
+     */
+    private static String token(ConfigurableApplicationContext context) {
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .subject("1")
+                .issuedAt(now)
+                .expiresAt(now.plus(Duration.ofHours(1)))
+                .claim("roles", List.of("USER"))
+                .build();
+        return context.getBean(JwtEncoder.class)
+                .encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims))
+                .getTokenValue();
+    }
+
+    private static final class Run {
+
+        private final HttpClient http;
+        private final URI bookings;
+        private final String token;
+        private final long measureFrom;
+        private final long end;
+        private final AtomicLong rooms = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final LocalDate startDate = LocalDate.now().plusDays(30);
+
+        Run(HttpClient http, String baseUrl, String token, long measureFrom, long end) {
+            this.http = http;
+            this.bookings = URI.create(baseUrl + "/api/bookings/bookings");
+            this.token = token;
+            this.measureFrom = measureFrom;
+            this.end = end;
+        }
+
+        CompletableFuture<Void> loop() {
+            long sent = System.nanoTime();
+            if (sent >= end) {
+                return CompletableFuture.completedFuture(null);
+            }
+            String body = "{\"hotelId\":1,\"roomId\":" + rooms.incrementAndGet()
+                    + ",\"startDate\":\"" + startDate + "\",\"endDate\":\"" + startDate.plusDays(2) + "\"}";
+            HttpRequest request = HttpRequest.newBuilder(bookings)
+                    .header("Content-Type", "application/json")
+                    .header("Authorization", "Bearer " + token)
+                    .timeout(Duration.ofSeconds(60))
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            return http.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, failure) -> {
+                        long received = System.nanoTime();
+                        if (sent >= measureFrom && received <= end) {
+                            if (failure != null || response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            } else {
+                                latencies.add(received - sent);
+                            }
+                        }
+                        return null;
+                    })
+                    .thenCompose(ignored -> loop());
+        }
+
+        Result result(int seconds) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            return new Result(sorted.length, errors.get(), (double) sorted.length / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), sorted.length == 0 ? 0 : sorted[sorted.length - 1]);
+        }
+
+        private static long percentile(long[] sorted, double p) {
+            return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)];
+        }
+    }
+
+    private record Result(int requests, long errors, double throughput, long p50Nanos, long p99Nanos, long maxNanos) {
+
+        @Override
+        public String toString() {
+            return String.format("%d ok, %d failed, %.0f req/s, p50 %.1f ms, p99 %.1f ms, max %.1f ms",
+                    requests, errors, throughput, p50Nanos / 1e6, p99Nanos / 1e6, maxNanos / 1e6);
+        }
+    }
+
+    private static int intArg(String[] args, String name, int defaultValue) {
+        return Integer.parseInt(arg(args, name, String.valueOf(defaultValue)));
+    }
+
+    private static String arg(String[] args, String name, String defaultValue) {
+        for (String arg : args) {
+            if (arg.startsWith(name + "=")) {
+                return arg.substring(name.length() + 1);
+            }
+        }
+        return defaultValue;
+    }
+}
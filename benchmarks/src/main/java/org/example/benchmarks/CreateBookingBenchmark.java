@@ -0,0 +1,111 @@
+package org.example.benchmarks;
+
+import org.example.booking.dto.BookingRequest;
+import org.example.booking.repository.BookingRepository;
+import org.example.booking.repository.OutboxCommandRepository;
+import org.example.booking.repository.RoomVersionRepository;
+import org.example.booking.service.BookingService;
+import org.example.booking.service.RoomOccupancyIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code BookingService.createBooking} from 8 threads.
+ * <ul>
+ *     <li>{@code SAME_ROOM}: groups of {@value #CONTENDERS} consecutive calls race for the same
+ *     room and dates, so one wins and the rest are rejected (the rejection is the returned value).</li>
+ *     <li>{@code DIFFERENT_ROOMS}: every call books its own room, nothing should serialize.</li>
+ * </ul>
+ * Bookings (with their room versions and outbox commands) are wiped after each iteration so the table doesn't grow across the run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class CreateBookingBenchmark {
+
+    private static final int CONTENDERS = 4;
+
+    public enum Contention {
+        SAME_ROOM,
+        DIFFERENT_ROOMS
+    }
+
+    @Param({"SAME_ROOM", "DIFFERENT_ROOMS"})
+    public Contention contention;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private BookingRepository bookingRepository;
+    private RoomVersionRepository roomVersionRepository;
+    private OutboxCommandRepository outboxRepository;
+    private RoomOccupancyIndex occupancyIndex;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final LocalDate firstDay = LocalDate.now().plusDays(1);
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = BookingContext.start();
+        bookingService = context.getBean(BookingService.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        roomVersionRepository = context.getBean(RoomVersionRepository.class);
+        outboxRepository = context.getBean(OutboxCommandRepository.class);
+        occupancyIndex = context.getBean(RoomOccupancyIndex.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearBookings() {
+        bookingRepository.deleteAllInBatch();
+        roomVersionRepository.deleteAllInBatch();
+        outboxRepository.deleteAllInBatch();
+        occupancyIndex.rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object createBooking() {
+        long n = sequence.incrementAndGet();
+        BookingRequest request = new BookingRequest();
+        request.setHotelId(1L);
+        if (contention == Contention.SAME_ROOM) {
+            LocalDate start = firstDay.plusDays(2 * (n / CONTENDERS));
+            request.setRoomId(1L);
+            request.setStartDate(start);
+            request.setEndDate(start.plusDays(2));
+        } else {
+            request.setRoomId(n);
+            request.setStartDate(firstDay);
+            request.setEndDate(firstDay.plusDays(2));
+        }
+        try {
+            return bookingService.createBooking(n, request, null);
+        } catch (IllegalStateException ex) {
+            return ex;
+        }
+    }
+}
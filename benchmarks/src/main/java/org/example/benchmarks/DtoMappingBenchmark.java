@@ -0,0 +1,102 @@
+package org.example.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.booking.dto.AvailableRoomResponse;
+import org.example.booking.dto.BookingResponse;
+import org.example.booking.entity.Booking;
+import org.example.booking.entity.Status;
+import org.example.booking.repository.BookingRepository;
+import org.example.booking.service.AvailabilityService;
+import org.example.booking.service.BookingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response mapping for the two list endpoints: loading a user's bookings page and mapping the
+ * entities to {@link BookingResponse}, and writing both response lists as JSON with the
+ * application's {@link ObjectMapper}. {@code size} is the page size / number of available rooms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    private static final long USER_ID = 1L;
+
+    @Param({"20", "500", "5000"})
+    public int size;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private ObjectMapper objectMapper;
+
+    private List<BookingResponse> bookings;
+    private List<AvailableRoomResponse> availableRooms;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = BookingContext.start();
+        context.getBean(StubHotelClient.class).setRoomCount(size);
+        bookingService = context.getBean(BookingService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        LocalDate firstDay = LocalDate.now().plusDays(1);
+        List<Booking> entities = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            entities.add(Booking.builder()
+                    .userId(USER_ID)
+                    .hotelId(1L)
+                    .roomId((long) i + 1)
+                    .startDate(firstDay.plusDays(i))
+                    .endDate(firstDay.plusDays(i + 2L))
+                    .status(Status.CONFIRMED)
+                    .build());
+        }
+        context.getBean(BookingRepository.class).saveAll(entities);
+
+        bookings = userBookingsPage();
+        availableRooms = context.getBean(AvailabilityService.class)
+                .getAvailableRooms(firstDay.minusDays(1), firstDay, null, null, false);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingResponse> userBookingsPage() {
+        return bookingService.getUserBookings(USER_ID, 0, size);
+    }
+
+    @Benchmark
+    public String serializeBookings() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(bookings);
+    }
+
+    @Benchmark
+    public String serializeAvailableRooms() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(availableRooms);
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.benchmarks;
+
+import org.example.booking.entity.Booking;
+import org.example.booking.entity.Status;
+import org.example.booking.repository.BookingRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code BookingRepository.findOverlapping} for a random room out of {@value #ROOMS}, each holding
+ * {@code bookingsPerRoom} back-to-back two-night bookings. The searched window overlaps exactly
+ * two of them. {@code existsOverlapping} is the same check as the admission path runs it, without
+ * loading the overlapping entities.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FindOverlappingBenchmark {
+
+    private static final int ROOMS = 100;
+    private static final List<Status> ACTIVE_STATUSES = Arrays.asList(Status.PENDING, Status.CONFIRMED);
+
+    @Param({"10", "100", "1000"})
+    public int bookingsPerRoom;
+
+    private ConfigurableApplicationContext context;
+    private BookingRepository bookingRepository;
+
+    private final LocalDate firstDay = LocalDate.now().plusDays(1);
+    private LocalDate searchStart;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = BookingContext.start();
+        bookingRepository = context.getBean(BookingRepository.class);
+
+        List<Booking> bookings = new ArrayList<>();
+        for (long roomId = 1; roomId <= ROOMS; roomId++) {
+            for (int i = 0; i < bookingsPerRoom; i++) {
+                bookings.add(Booking.builder()
+                        .userId(1L)
+                        .hotelId(1L)
+                        .roomId(roomId)
+                        .startDate(firstDay.plusDays(2L * i))
+                        .endDate(firstDay.plusDays(2L * i + 2))
+                        .status(Status.CONFIRMED)
+                        .build());
+            }
+        }
+        bookingRepository.saveAll(bookings);
+        searchStart = firstDay.plusDays(bookingsPerRoom - 1L);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Booking> findOverlapping() {
+        long roomId = ThreadLocalRandom.current().nextLong(1, ROOMS + 1);
+        return bookingRepository.findOverlapping(roomId, searchStart, searchStart.plusDays(2), ACTIVE_STATUSES);
+    }
+
+    @Benchmark
+    public boolean existsOverlapping() {
+        long roomId = ThreadLocalRandom.current().nextLong(1, ROOMS + 1);
+        return bookingRepository.existsOverlapping(roomId, searchStart, searchStart.plusDays(2), ACTIVE_STATUSES);
+    }
+}
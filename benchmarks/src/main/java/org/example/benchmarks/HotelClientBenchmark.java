@@ -0,0 +1,141 @@
+package org.example.benchmarks;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.example.booking.client.HotelClient;
+import org.example.booking.client.ReactiveHotelClient;
+import org.example.booking.client.RestHotelClient;
+import org.example.booking.config.HotelClientProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code concurrency} simultaneous room page calls against a local hotel-service stand-in that answers
+ * each one after {@code latencyMs}, per client mode. The blocking client needs one calling thread per
+ * in-flight call, so it runs them on a pool of {@code concurrency} threads; the reactive client issues
+ * them all from the benchmark thread and waits once. The stand-in is a Reactor Netty server that delays
+ * replies on a timer without holding a thread, so it isn't the bottleneck for either client.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HotelClientBenchmark {
+
+    private static final String PAGE = """
+            [{"id":1,"hotelId":1,"number":"101","available":true,"timesBooked":0}]
+            """;
+
+    @Param({"BLOCKING", "REACTIVE"})
+    public HotelClientProperties.Mode mode;
+
+    @Param({"50", "200"})
+    public int concurrency;
+
+    @Param({"20"})
+    public int latencyMs;
+
+    private DisposableServer server;
+    private ExecutorService callers;
+    private ConnectionProvider connections;
+    private HotelClient client;
+
+    @Setup(Level.Trial)
+    public void start() {
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes.get("/api/rooms", (request, response) -> response
+                        .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                        .sendString(Mono.just(PAGE).delayElement(Duration.ofMillis(latencyMs)))))
+                .bindNow();
+
+        HotelClientProperties properties = new HotelClientProperties();
+        properties.setBaseUrl("http://127.0.0.1:" + server.port());
+        properties.getPool().setMaxConnections(concurrency);
+        if (mode == HotelClientProperties.Mode.BLOCKING) {
+            JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(
+                    java.net.http.HttpClient.newBuilder()
+                            .connectTimeout(properties.getConnectTimeout())
+                            .version(java.net.http.HttpClient.Version.HTTP_1_1)
+                            .build());
+            requestFactory.setReadTimeout(properties.getReadTimeout());
+            client = new RestHotelClient(new RestTemplate(requestFactory), properties);
+            callers = Executors.newFixedThreadPool(concurrency);
+        } else {
+            connections = ConnectionProvider.builder("bench")
+                    .maxConnections(properties.getPool().getMaxConnections())
+                    .build();
+            WebClient webClient = WebClient.builder()
+                    .baseUrl(properties.getBaseUrl())
+                    .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)
+                            .responseTimeout(properties.getReadTimeout())))
+                    .build();
+            client = new ReactiveHotelClient(webClient, properties,
+                    CircuitBreakerRegistry.ofDefaults(), RetryRegistry.ofDefaults());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (callers != null) {
+            callers.shutdownNow();
+        }
+        if (connections != null) {
+            connections.dispose();
+        }
+        server.disposeNow();
+    }
+
+    @Benchmark
+    public int concurrentRoomPages() throws Exception {
+        if (client instanceof ReactiveHotelClient reactive) {
+            return Flux.range(0, concurrency)
+                    .flatMap(i -> reactive.getRoomsPageAsync(null, 1, null), concurrency)
+                    .map(page -> page.getRooms().size())
+                    .reduce(0, Integer::sum)
+                    .block();
+        }
+        List<Future<Integer>> calls = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            calls.add(callers.submit(() -> client.getRoomsPage(null, 1, null).getRooms().size()));
+        }
+        int rooms = 0;
+        for (Future<Integer> call : calls) {
+            rooms += call.get();
+        }
+        return rooms;
+    }
+}
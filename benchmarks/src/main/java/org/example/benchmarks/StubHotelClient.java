@@ -0,0 +1,109 @@
+package org.example.benchmarks;
+
+import org.example.booking.client.HotelClient;
+import org.example.booking.client.dto.ConfirmAvailabilityCommand;
+import org.example.booking.client.dto.ReleaseCommand;
+import org.example.booking.client.dto.RoomCommandResult;
+import org.example.booking.client.dto.RoomConfirmCommand;
+import org.example.booking.client.dto.RoomPage;
+import org.example.booking.client.dto.RoomReleaseCommand;
+import org.example.booking.client.dto.RoomSummary;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-process hotel-service: accepts every confirm/release and serves a synthetic catalog
+ * of {@code roomCount} rooms (ids 1..n, spread over 10 hotels), paged the same way
+ * hotel-service pages it. Confirm and release calls can be given a simulated round trip.
+ */
+public class StubHotelClient implements HotelClient {
+
+    static final int HOTELS = 10;
+
+    private volatile List<RoomSummary> rooms = List.of();
+    private volatile long latencyNanos;
+
+    public void setRoomCount(int roomCount) {
+        List<RoomSummary> catalog = new ArrayList<>(roomCount);
+        for (long id = 1; id <= roomCount; id++) {
+            RoomSummary room = new RoomSummary();
+            room.setId(id);
+            room.setHotelId(id % HOTELS + 1);
+            room.setNumber(String.valueOf(id));
+            room.setAvailable(true);
+            room.setTimesBooked(0L);
+            catalog.add(room);
+        }
+        this.rooms = catalog;
+    }
+
+    /**
+     * How long confirm and release calls block the caller, standing in for the HTTP hop to hotel-service.
+     */
+    public void setLatency(Duration latency) {
+        this.latencyNanos = latency.toNanos();
+    }
+
+    @Override
+    public void confirmAvailability(Long roomId, ConfirmAvailabilityCommand command) {
+        roundTrip();
+    }
+
+    @Override
+    public void release(Long roomId, ReleaseCommand command) {
+        roundTrip();
+    }
+
+    @Override
+    public List<RoomCommandResult> confirmAvailabilityBatch(List<RoomConfirmCommand> commands) {
+        roundTrip();
+        return commands.stream()
+                .map(c -> new RoomCommandResult(c.getRoomId(), c.getBookingId(), true, null))
+                .toList();
+    }
+
+    @Override
+    public List<RoomCommandResult> releaseBatch(List<RoomReleaseCommand> commands) {
+        roundTrip();
+        return commands.stream()
+                .map(c -> new RoomCommandResult(c.getRoomId(), c.getBookingId(), true, null))
+                .toList();
+    }
+
+    @Override
+    public RoomPage getRoomsPage(Long hotelId, int limit, String cursor) {
+        return page(hotelId, limit, cursor);
+    }
+
+    @Override
+    public RoomPage getRecommendedRoomsPage(Long hotelId, int limit, String cursor) {
+        // every room has timesBooked = 0, so rank order is id order
+        return page(hotelId, limit, cursor);
+    }
+
+    private RoomPage page(Long hotelId, int limit, String cursor) {
+        long afterId = cursor == null ? 0 : Long.parseLong(cursor);
+        List<RoomSummary> page = new ArrayList<>(Math.min(limit, rooms.size()));
+        for (int i = (int) afterId; i < rooms.size() && page.size() <= limit; i++) {
+            RoomSummary room = rooms.get(i);
+            if (hotelId == null || hotelId.equals(room.getHotelId())) {
+                page.add(room);
+            }
+        }
+        if (page.size() > limit) {
+            page.remove(page.size() - 1);
+            return new RoomPage(page, String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        return new RoomPage(page, null);
+    }
+
+    private void roundTrip() {
+        long nanos = latencyNanos;
+        if (nanos > 0) {
+            LockSupport.parkNanos(nanos);
+        }
+    }
+}
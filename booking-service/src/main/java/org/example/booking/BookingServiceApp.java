@@ -3,10 +3,14 @@ package org.example.booking;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableScheduling
+@ConfigurationPropertiesScan
 public class BookingServiceApp {
     public static void main(String[] args) {
         SpringApplication.run(BookingServiceApp.class, args);
@@ -1,81 +1,39 @@
 package org.example.booking.client;
 
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.retry.annotation.Retry;
-import lombok.RequiredArgsConstructor;
 import org.example.booking.client.dto.ConfirmAvailabilityCommand;
 import org.example.booking.client.dto.ReleaseCommand;
-import org.example.booking.client.dto.RoomSummary;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
-import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
+import org.example.booking.client.dto.RoomCommandResult;
+import org.example.booking.client.dto.RoomConfirmCommand;
+import org.example.booking.client.dto.RoomPage;
+import org.example.booking.client.dto.RoomReleaseCommand;
 
 import java.util.List;
 
-@Component
-@RequiredArgsConstructor
-public class HotelClient {
+/**
+ * Calls to hotel-service. {@code booking.hotel-client.mode} selects the implementation:
+ * {@link RestHotelClient} (blocking, default) or {@link ReactiveHotelClient}.
+ * <p>
+ * A call hotel-service answers with 4xx throws {@link org.springframework.web.client.HttpClientErrorException}
+ * and one answered with 5xx throws {@link org.springframework.web.client.HttpServerErrorException},
+ * whatever the implementation.
+ */
+public interface HotelClient {
 
-    private final RestTemplate restTemplate;
+    String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
-    @Retry(name = "hotelConfirm")
-    @CircuitBreaker(name = "hotelConfirm")
-    public void confirmAvailability(Long roomId, ConfirmAvailabilityCommand command) {
-        String url = "http://hotel-service/api/rooms/" + roomId + "/confirm-availability";
-        ResponseEntity<Void> response = restTemplate.exchange(
-                url,
-                HttpMethod.POST,
-                new HttpEntity<>(command),
-                Void.class
-        );
-        if (!response.getStatusCode().is2xxSuccessful()) {
-            throw new RuntimeException("Hotel confirm-availability failed with status " + response.getStatusCode());
-        }
-    }
+    void confirmAvailability(Long roomId, ConfirmAvailabilityCommand command);
 
-    @Retry(name = "hotelRelease")
-    @CircuitBreaker(name = "hotelRelease")
-    public void release(Long roomId, ReleaseCommand command) {
-        String url = "http://hotel-service/api/rooms/" + roomId + "/release";
-        ResponseEntity<Void> response = restTemplate.exchange(
-                url,
-                HttpMethod.POST,
-                new HttpEntity<>(command),
-                Void.class
-        );
-        if (!response.getStatusCode().is2xxSuccessful()) {
-            throw new RuntimeException("Hotel release failed with status " + response.getStatusCode());
-        }
-    }
+    void release(Long roomId, ReleaseCommand command);
 
-    @Retry(name = "hotelRooms")
-    @CircuitBreaker(name = "hotelRooms")
-    public List<RoomSummary> getAllRooms() {
-        String url = "http://hotel-service/api/rooms";
-        ResponseEntity<List<RoomSummary>> response = restTemplate.exchange(
-                url,
-                HttpMethod.GET,
-                null,
-                new ParameterizedTypeReference<List<RoomSummary>>() {
-                }
-        );
-        return response.getBody();
-    }
+    /**
+     * Confirms many rooms with one call. A command hotel-service rejects comes back as a failed
+     * result instead of failing the call, so only transport and server errors throw.
+     */
+    List<RoomCommandResult> confirmAvailabilityBatch(List<RoomConfirmCommand> commands);
 
-    @Retry(name = "hotelRecommend")
-    @CircuitBreaker(name = "hotelRecommend")
-    public List<RoomSummary> getRecommendedRooms() {
-        String url = "http://hotel-service/api/rooms/recommend";
-        ResponseEntity<List<RoomSummary>> response = restTemplate.exchange(
-                url,
-                HttpMethod.GET,
-                null,
-                new ParameterizedTypeReference<List<RoomSummary>>() {
-                }
-        );
-        return response.getBody();
-    }
+    List<RoomCommandResult> releaseBatch(List<RoomReleaseCommand> commands);
+
+    RoomPage getRoomsPage(Long hotelId, int limit, String cursor);
+
+    RoomPage getRecommendedRoomsPage(Long hotelId, int limit, String cursor);
 }
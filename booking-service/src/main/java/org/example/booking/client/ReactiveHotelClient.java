@@ -0,0 +1,183 @@
+package org.example.booking.client;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.example.booking.client.dto.ConfirmAvailabilityCommand;
+import org.example.booking.client.dto.ReleaseCommand;
+import org.example.booking.client.dto.RoomCommandResult;
+import org.example.booking.client.dto.RoomConfirmCommand;
+import org.example.booking.client.dto.RoomPage;
+import org.example.booking.client.dto.RoomReleaseCommand;
+import org.example.booking.client.dto.RoomSummary;
+import org.example.booking.config.HotelClientProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Non-blocking {@link HotelClient} on a load-balanced {@link WebClient} over a pooled Reactor Netty client.
+ * <p>
+ * The {@code *Async} methods return the call as a {@link Mono}, with the same Resilience4j retry and
+ * circuit breaker instances the blocking client uses through annotations, applied as Reactor operators.
+ * Each attempt is bounded by {@code booking.hotel-client.read-timeout}. The {@link HotelClient} methods
+ * subscribe and wait for the result, so existing callers keep their semantics while the connection
+ * itself is served by the event loop.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.hotel-client.mode", havingValue = "reactive")
+public class ReactiveHotelClient implements HotelClient {
+
+    private static final ParameterizedTypeReference<List<RoomCommandResult>> COMMAND_RESULTS =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final WebClient webClient;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final RetryRegistry retries;
+    private final Duration readTimeout;
+
+    public ReactiveHotelClient(WebClient hotelWebClient,
+                               HotelClientProperties properties,
+                               CircuitBreakerRegistry circuitBreakers,
+                               RetryRegistry retries) {
+        this.webClient = hotelWebClient;
+        this.circuitBreakers = circuitBreakers;
+        this.retries = retries;
+        this.readTimeout = properties.getReadTimeout();
+    }
+
+    public Mono<Void> confirmAvailabilityAsync(Long roomId, ConfirmAvailabilityCommand command) {
+        return resilient("hotelConfirm", webClient.post()
+                .uri("/api/rooms/{roomId}/confirm-availability", roomId)
+                .bodyValue(command)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, ReactiveHotelClient::toRestException)
+                .toBodilessEntity()
+                .then());
+    }
+
+    public Mono<Void> releaseAsync(Long roomId, ReleaseCommand command) {
+        return resilient("hotelRelease", webClient.post()
+                .uri("/api/rooms/{roomId}/release", roomId)
+                .bodyValue(command)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, ReactiveHotelClient::toRestException)
+                .toBodilessEntity()
+                .then());
+    }
+
+    public Mono<List<RoomCommandResult>> confirmAvailabilityBatchAsync(List<RoomConfirmCommand> commands) {
+        return resilient("hotelConfirm", postBatch("/api/rooms/confirm-availability/batch", commands));
+    }
+
+    public Mono<List<RoomCommandResult>> releaseBatchAsync(List<RoomReleaseCommand> commands) {
+        return resilient("hotelRelease", postBatch("/api/rooms/release/batch", commands));
+    }
+
+    public Mono<RoomPage> getRoomsPageAsync(Long hotelId, int limit, String cursor) {
+        return resilient("hotelRooms", fetchPage("/api/rooms", hotelId, limit, cursor));
+    }
+
+    public Mono<RoomPage> getRecommendedRoomsPageAsync(Long hotelId, int limit, String cursor) {
+        return resilient("hotelRecommend", fetchPage("/api/rooms/recommend", hotelId, limit, cursor));
+    }
+
+    @Override
+    public void confirmAvailability(Long roomId, ConfirmAvailabilityCommand command) {
+        confirmAvailabilityAsync(roomId, command).block();
+    }
+
+    @Override
+    public void release(Long roomId, ReleaseCommand command) {
+        releaseAsync(roomId, command).block();
+    }
+
+    @Override
+    public List<RoomCommandResult> confirmAvailabilityBatch(List<RoomConfirmCommand> commands) {
+        return confirmAvailabilityBatchAsync(commands).block();
+    }
+
+    @Override
+    public List<RoomCommandResult> releaseBatch(List<RoomReleaseCommand> commands) {
+        return releaseBatchAsync(commands).block();
+    }
+
+    @Override
+    public RoomPage getRoomsPage(Long hotelId, int limit, String cursor) {
+        return getRoomsPageAsync(hotelId, limit, cursor).block();
+    }
+
+    @Override
+    public RoomPage getRecommendedRoomsPage(Long hotelId, int limit, String cursor) {
+        return getRecommendedRoomsPageAsync(hotelId, limit, cursor).block();
+    }
+
+    private <T> Mono<T> resilient(String instance, Mono<T> call) {
+        // same nesting as the annotations: retry around the circuit breaker around one timed attempt
+        return call.timeout(readTimeout)
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreakers.circuitBreaker(instance)))
+                .transformDeferred(RetryOperator.of(retries.retry(instance)));
+    }
+
+    private Mono<List<RoomCommandResult>> postBatch(String path, List<?> commands) {
+        return webClient.post()
+                .uri(path)
+                .bodyValue(commands)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, ReactiveHotelClient::toRestException)
+                .bodyToMono(COMMAND_RESULTS)
+                .defaultIfEmpty(List.of());
+    }
+
+    private Mono<RoomPage> fetchPage(String path, Long hotelId, int limit, String cursor) {
+        return webClient.get()
+                .uri(builder -> pageUri(builder.path(path), hotelId, limit, cursor))
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, ReactiveHotelClient::toRestException)
+                .toEntityList(RoomSummary.class)
+                .map(response -> new RoomPage(
+                        response.getBody() == null ? List.of() : response.getBody(),
+                        response.getHeaders().getFirst(NEXT_CURSOR_HEADER)));
+    }
+
+    private static URI pageUri(UriBuilder builder, Long hotelId, int limit, String cursor) {
+        return builder
+                .queryParamIfPresent("hotelId", Optional.ofNullable(hotelId))
+                .queryParam("limit", limit)
+                .queryParamIfPresent("cursor", Optional.ofNullable(cursor))
+                .build();
+    }
+
+    /**
+     * Raises the same exceptions {@code RestTemplate} does, so callers telling rejections (4xx) from
+     * failures apart work with either client.
+     */
+    private static Mono<Throwable> toRestException(ClientResponse response) {
+        HttpStatusCode status = response.statusCode();
+        HttpStatus known = HttpStatus.resolve(status.value());
+        String statusText = known == null ? "" : known.getReasonPhrase();
+        return response.bodyToMono(byte[].class)
+                .defaultIfEmpty(new byte[0])
+                .map(body -> status.is4xxClientError()
+                        ? HttpClientErrorException.create(status, statusText, response.headers().asHttpHeaders(),
+                        body, StandardCharsets.UTF_8)
+                        : HttpServerErrorException.create(status, statusText, response.headers().asHttpHeaders(),
+                        body, StandardCharsets.UTF_8));
+    }
+}
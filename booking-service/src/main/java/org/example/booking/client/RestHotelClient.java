@@ -0,0 +1,130 @@
+package org.example.booking.client;
+
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.retry.annotation.Retry;
+import org.example.booking.client.dto.ConfirmAvailabilityCommand;
+import org.example.booking.client.dto.ReleaseCommand;
+import org.example.booking.client.dto.RoomCommandResult;
+import org.example.booking.client.dto.RoomConfirmCommand;
+import org.example.booking.client.dto.RoomPage;
+import org.example.booking.client.dto.RoomReleaseCommand;
+import org.example.booking.client.dto.RoomSummary;
+import org.example.booking.config.HotelClientProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Blocking {@link HotelClient} on the load-balanced {@link RestTemplate}.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.hotel-client.mode", havingValue = "blocking", matchIfMissing = true)
+public class RestHotelClient implements HotelClient {
+
+    private final RestTemplate restTemplate;
+    private final String baseUrl;
+
+    public RestHotelClient(RestTemplate restTemplate, HotelClientProperties properties) {
+        this.restTemplate = restTemplate;
+        this.baseUrl = properties.getBaseUrl();
+    }
+
+    @Override
+    @Retry(name = "hotelConfirm")
+    @CircuitBreaker(name = "hotelConfirm")
+    public void confirmAvailability(Long roomId, ConfirmAvailabilityCommand command) {
+        String url = baseUrl + "/api/rooms/" + roomId + "/confirm-availability";
+        ResponseEntity<Void> response = restTemplate.exchange(
+                url,
+                HttpMethod.POST,
+                new HttpEntity<>(command),
+                Void.class
+        );
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new RuntimeException("Hotel confirm-availability failed with status " + response.getStatusCode());
+        }
+    }
+
+    @Override
+    @Retry(name = "hotelRelease")
+    @CircuitBreaker(name = "hotelRelease")
+    public void release(Long roomId, ReleaseCommand command) {
+        String url = baseUrl + "/api/rooms/" + roomId + "/release";
+        ResponseEntity<Void> response = restTemplate.exchange(
+                url,
+                HttpMethod.POST,
+                new HttpEntity<>(command),
+                Void.class
+        );
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new RuntimeException("Hotel release failed with status " + response.getStatusCode());
+        }
+    }
+
+    @Override
+    @Retry(name = "hotelConfirm")
+    @CircuitBreaker(name = "hotelConfirm")
+    public List<RoomCommandResult> confirmAvailabilityBatch(List<RoomConfirmCommand> commands) {
+        return postBatch(baseUrl + "/api/rooms/confirm-availability/batch", commands);
+    }
+
+    @Override
+    @Retry(name = "hotelRelease")
+    @CircuitBreaker(name = "hotelRelease")
+    public List<RoomCommandResult> releaseBatch(List<RoomReleaseCommand> commands) {
+        return postBatch(baseUrl + "/api/rooms/release/batch", commands);
+    }
+
+    @Override
+    @Retry(name = "hotelRooms")
+    @CircuitBreaker(name = "hotelRooms")
+    public RoomPage getRoomsPage(Long hotelId, int limit, String cursor) {
+        return fetchPage(baseUrl + "/api/rooms", hotelId, limit, cursor);
+    }
+
+    @Override
+    @Retry(name = "hotelRecommend")
+    @CircuitBreaker(name = "hotelRecommend")
+    public RoomPage getRecommendedRoomsPage(Long hotelId, int limit, String cursor) {
+        return fetchPage(baseUrl + "/api/rooms/recommend", hotelId, limit, cursor);
+    }
+
+    private List<RoomCommandResult> postBatch(String url, List<?> commands) {
+        ResponseEntity<List<RoomCommandResult>> response = restTemplate.exchange(
+                url,
+                HttpMethod.POST,
+                new HttpEntity<>(commands),
+                new ParameterizedTypeReference<List<RoomCommandResult>>() {
+                }
+        );
+        return response.getBody() == null ? List.of() : response.getBody();
+    }
+
+    private RoomPage fetchPage(String baseUrl, Long hotelId, int limit, String cursor) {
+        URI uri = UriComponentsBuilder.fromUriString(baseUrl)
+                .queryParamIfPresent("hotelId", Optional.ofNullable(hotelId))
+                .queryParam("limit", limit)
+                .queryParamIfPresent("cursor", Optional.ofNullable(cursor))
+                .encode()
+                .build()
+                .toUri();
+        ResponseEntity<List<RoomSummary>> response = restTemplate.exchange(
+                uri,
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<List<RoomSummary>>() {
+                }
+        );
+        List<RoomSummary> rooms = response.getBody() == null ? List.of() : response.getBody();
+        return new RoomPage(rooms, response.getHeaders().getFirst(NEXT_CURSOR_HEADER));
+    }
+}
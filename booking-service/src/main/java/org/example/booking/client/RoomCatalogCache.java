@@ -0,0 +1,169 @@
+package org.example.booking.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineStatsCounter;
+import lombok.extern.slf4j.Slf4j;
+import org.example.booking.client.dto.RoomPage;
+import org.example.booking.client.dto.RoomSummary;
+import org.example.booking.config.CatalogProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Read-through cache in front of the {@link HotelClient} room catalog calls. A catalog is the full list
+ * of available rooms for one (listing, hotel) pair, loaded page by page.
+ * <p>
+ * Both listings are paged by room id, which never changes, and the recommended one is sorted here. Paging
+ * hotel-service's recommended order instead would key pages on times booked, so a room confirmed
+ * during the load could move across the cursor and be listed twice or not at all.
+ * <p>
+ * Catalogs expire after {@code ttl} and are reloaded in the background once older than
+ * {@code refreshAfter}, so hot searches never wait on hotel-service. The last good catalog per key
+ * is kept separately: with stale-while-revalidate enabled it is served when a load fails, e.g. while
+ * the {@code hotelRooms} circuit breaker is open. Hit/miss/load-time stats are published as the
+ * standard {@code cache.*} meters tagged {@code cache=hotelRoomCatalog}.
+ * <p>
+ * Loads run on the application task executor and readers wait on the load's future. A synchronous
+ * Caffeine loader would run the hotel-service calls inside {@code ConcurrentHashMap.compute}, i.e. while
+ * holding a monitor, pinning the carrier when requests are served on virtual threads.
+ */
+@Slf4j
+@Component
+public class RoomCatalogCache {
+
+    private static final String CACHE_NAME = "hotelRoomCatalog";
+
+    private static final Comparator<RoomSummary> RECOMMENDED_ORDER =
+            Comparator.comparing(RoomSummary::getTimesBooked).thenComparing(RoomSummary::getId);
+
+    private final HotelClient hotelClient;
+    private final CatalogProperties properties;
+    private final Ticker ticker;
+    private final AsyncLoadingCache<CatalogKey, CatalogSnapshot> cache;
+    private final Cache<CatalogKey, CatalogSnapshot> lastGood;
+    private final Counter staleServed;
+
+    @Autowired
+    public RoomCatalogCache(HotelClient hotelClient,
+                            CatalogProperties properties,
+                            MeterRegistry meterRegistry,
+                            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                            Executor loadExecutor) {
+        this(hotelClient, properties, meterRegistry, Ticker.systemTicker(), loadExecutor);
+    }
+
+    RoomCatalogCache(HotelClient hotelClient,
+                     CatalogProperties properties,
+                     MeterRegistry meterRegistry,
+                     Ticker ticker,
+                     Executor loadExecutor) {
+        CatalogProperties.Cache cacheProperties = properties.getCache();
+        if (cacheProperties.getRefreshAfter().compareTo(cacheProperties.getTtl()) >= 0) {
+            throw new IllegalArgumentException("booking.catalog.cache.refresh-after must be shorter than ttl");
+        }
+        this.hotelClient = hotelClient;
+        this.properties = properties;
+        this.ticker = ticker;
+        this.cache = Caffeine.newBuilder()
+                .ticker(ticker)
+                .executor(loadExecutor)
+                .expireAfterWrite(cacheProperties.getTtl())
+                .refreshAfterWrite(cacheProperties.getRefreshAfter())
+                .maximumWeight(cacheProperties.getMaxRooms())
+                .weigher((CatalogKey key, CatalogSnapshot snapshot) -> snapshot.rooms().size())
+                .recordStats(() -> new CaffeineStatsCounter(meterRegistry, CACHE_NAME))
+                .buildAsync(this::load);
+        this.lastGood = Caffeine.newBuilder()
+                .ticker(ticker)
+                .maximumWeight(cacheProperties.getMaxRooms())
+                .weigher((CatalogKey key, CatalogSnapshot snapshot) -> snapshot.rooms().size())
+                .build();
+        this.staleServed = Counter.builder("cache.stale.served")
+                .tag("cache", CACHE_NAME)
+                .description("Searches served from the last good catalog because loading failed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Available rooms ordered by id, for one hotel or for all hotels when {@code hotelId} is null.
+     */
+    public List<RoomSummary> getAllRooms(Long hotelId) {
+        return get(new CatalogKey(false, hotelId));
+    }
+
+    /**
+     * Available rooms ordered by times booked, then id.
+     */
+    public List<RoomSummary> getRecommendedRooms(Long hotelId) {
+        return get(new CatalogKey(true, hotelId));
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+        lastGood.invalidateAll();
+    }
+
+    private List<RoomSummary> get(CatalogKey key) {
+        CatalogProperties.Cache cacheProperties = properties.getCache();
+        if (!cacheProperties.isEnabled()) {
+            return fetch(key);
+        }
+        try {
+            return cache.get(key).join().rooms();
+        } catch (CompletionException wrapped) {
+            RuntimeException ex = wrapped.getCause() instanceof RuntimeException cause ? cause : wrapped;
+            CatalogSnapshot stale = cacheProperties.isStaleWhileRevalidate() ? lastGood.getIfPresent(key) : null;
+            if (stale == null || age(stale).compareTo(cacheProperties.getMaxStale()) > 0) {
+                throw ex;
+            }
+            staleServed.increment();
+            log.warn("Room catalog {} load failed ({}), serving catalog loaded {} ago",
+                    key, ex.getMessage(), age(stale));
+            return stale.rooms();
+        }
+    }
+
+    private CatalogSnapshot load(CatalogKey key) {
+        CatalogSnapshot snapshot = new CatalogSnapshot(fetch(key), ticker.read());
+        lastGood.put(key, snapshot);
+        return snapshot;
+    }
+
+    private List<RoomSummary> fetch(CatalogKey key) {
+        List<RoomSummary> rooms = new ArrayList<>();
+        String cursor = null;
+        do {
+            RoomPage page = hotelClient.getRoomsPage(key.hotelId(), properties.getPageSize(), cursor);
+            rooms.addAll(page.getRooms());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        if (key.recommend()) {
+            rooms.sort(RECOMMENDED_ORDER);
+        }
+        return List.copyOf(rooms);
+    }
+
+    private Duration age(CatalogSnapshot snapshot) {
+        return Duration.ofNanos(ticker.read() - snapshot.loadedAtNanos());
+    }
+
+    record CatalogKey(boolean recommend, Long hotelId) {
+    }
+
+    record CatalogSnapshot(List<RoomSummary> rooms, long loadedAtNanos) {
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.booking.client.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one command of a batch call; hotel-service returns them in request order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomCommandResult {
+
+    private Long roomId;
+    private String bookingId;
+    private boolean success;
+    private String error;
+}
@@ -0,0 +1,19 @@
+package org.example.booking.client.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * One entry of a batch confirm-availability call.
+ */
+@Getter
+@AllArgsConstructor
+public class RoomConfirmCommand {
+
+    private Long roomId;
+    private String bookingId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+}
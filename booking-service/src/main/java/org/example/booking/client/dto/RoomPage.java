@@ -0,0 +1,18 @@
+package org.example.booking.client.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class RoomPage {
+
+    private List<RoomSummary> rooms;
+
+    /**
+     * Cursor of the next page as returned by hotel-service, {@code null} on the last page.
+     */
+    private String nextCursor;
+}
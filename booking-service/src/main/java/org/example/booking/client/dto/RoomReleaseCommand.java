@@ -0,0 +1,15 @@
+package org.example.booking.client.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One entry of a batch release call.
+ */
+@Getter
+@AllArgsConstructor
+public class RoomReleaseCommand {
+
+    private Long roomId;
+    private String bookingId;
+}
@@ -0,0 +1,38 @@
+package org.example.booking.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "booking.admission")
+public class AdmissionProperties {
+
+    public enum Mode {
+        /**
+         * Overlap check with {@code SELECT ... FOR UPDATE} on the room's existing bookings.
+         */
+        PESSIMISTIC,
+        /**
+         * In-process lock striped by room id around the booking transaction, plus an optimistic
+         * per-room version row that catches races between instances.
+         */
+        STRIPED_OPTIMISTIC
+    }
+
+    private Mode mode = Mode.STRIPED_OPTIMISTIC;
+
+    /**
+     * Number of room lock stripes, rounded up to a power of two. Rooms sharing a stripe
+     * serialize, so keep this well above the number of request threads.
+     */
+    private int stripes = Runtime.getRuntime().availableProcessors() * 8;
+
+    /**
+     * How long a booking waits for its room stripe before giving up with 409.
+     */
+    private Duration lockTimeout = Duration.ofMillis(500);
+}
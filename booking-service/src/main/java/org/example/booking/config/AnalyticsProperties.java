@@ -0,0 +1,35 @@
+package org.example.booking.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "booking.analytics")
+public class AnalyticsProperties {
+
+    private final Occupancy occupancy = new Occupancy();
+
+    @Getter
+    @Setter
+    public static class Occupancy {
+
+        /**
+         * Keep per-hotel occupancy curves in memory. When disabled every occupancy query reads
+         * the bookings of the requested range from the database.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Days before today covered by the in-memory curves.
+         */
+        private int pastDays = 90;
+
+        /**
+         * Days from today on covered by the in-memory curves. Queries reaching outside the covered
+         * window are answered from the database.
+         */
+        private int futureDays = 730;
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.booking.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "booking.availability")
+public class AvailabilityProperties {
+
+    private final Index index = new Index();
+
+    private final Parallel parallel = new Parallel();
+
+    private final Coalescing coalescing = new Coalescing();
+
+    @Getter
+    @Setter
+    public static class Index {
+
+        /**
+         * Answer availability searches and booking pre-checks from the in-memory room index.
+         * When disabled (or while the index is stale) every check goes to the database.
+         */
+        private boolean enabled = true;
+    }
+
+    @Getter
+    @Setter
+    public static class Parallel {
+
+        /**
+         * Evaluate database overlap checks for large candidate lists in concurrent chunks.
+         * Only applies while the in-memory index can't answer the search.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Max chunks evaluated at the same time, shared by all searches. Each running chunk holds
+         * a pooled DB connection, so keep this below the connection pool size.
+         */
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Rooms per chunk, one overlap query each.
+         */
+        private int chunkSize = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class Coalescing {
+
+        /**
+         * Let concurrent identical searches (same dates, hotel and listing) share one evaluation,
+         * with {@code limit} applied per caller.
+         */
+        private boolean enabled = true;
+
+        /**
+         * How long a finished evaluation keeps answering identical searches. Dropped earlier as soon
+         * as a booking in the searched scope is created or cancelled; zero only coalesces in-flight ones.
+         */
+        private Duration resultTtl = Duration.ofSeconds(1);
+
+        /**
+         * Max finished evaluations kept for {@code result-ttl}.
+         */
+        private int maxResults = 1000;
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.booking.config;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.jdbc.dialect.spi.DialectResolutionInfo;
+import org.hibernate.engine.jdbc.dialect.spi.DialectResolver;
+import org.hibernate.exception.spi.TemplatedViolatedConstraintNameExtractor;
+import org.hibernate.exception.spi.ViolatedConstraintNameExtractor;
+import org.hibernate.internal.util.JdbcExceptionHelper;
+
+/**
+ * Registered through {@code hibernate.dialect_resolvers}: resolves PostgreSQL to
+ * {@link ExclusionAwarePostgreSQLDialect} and leaves every other database to Hibernate's own resolution.
+ */
+public class BookingDialectResolver implements DialectResolver {
+
+    @Override
+    public Dialect resolveDialect(DialectResolutionInfo info) {
+        return "PostgreSQL".equals(info.getDatabaseName()) ? new ExclusionAwarePostgreSQLDialect(info) : null;
+    }
+
+    /**
+     * Hibernate's PostgreSQL dialect doesn't name the constraint of an exclusion violation (SQLState
+     * {@code 23P01}), so a {@code ConstraintViolationException} for {@code bookings_no_active_overlap}
+     * would carry no constraint name. This one reads it from the server message like the other kinds.
+     */
+    static class ExclusionAwarePostgreSQLDialect extends PostgreSQLDialect {
+
+        private static final String EXCLUSION_VIOLATION = "23P01";
+
+        ExclusionAwarePostgreSQLDialect(DialectResolutionInfo info) {
+            super(info);
+        }
+
+        @Override
+        public ViolatedConstraintNameExtractor getViolatedConstraintNameExtractor() {
+            ViolatedConstraintNameExtractor standard = super.getViolatedConstraintNameExtractor();
+            return new TemplatedViolatedConstraintNameExtractor(ex ->
+                    EXCLUSION_VIOLATION.equals(JdbcExceptionHelper.extractSqlState(ex))
+                            ? TemplatedViolatedConstraintNameExtractor.extractUsingTemplate(
+                                    "violates exclusion constraint \"", "\"", ex.getMessage())
+                            : standard.extractConstraintName(ex));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.booking.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "booking.catalog")
+public class CatalogProperties {
+
+    /**
+     * Rooms requested per page when loading a catalog from hotel-service.
+     */
+    private int pageSize = 500;
+
+    private final Cache cache = new Cache();
+
+    @Getter
+    @Setter
+    public static class Cache {
+
+        /**
+         * Cache room catalogs fetched from hotel-service. When disabled every search calls hotel-service.
+         */
+        private boolean enabled = true;
+
+        /**
+         * How long a loaded catalog may be served before it has to be loaded again.
+         */
+        private Duration ttl = Duration.ofMinutes(5);
+
+        /**
+         * Age after which the next read triggers a background reload while still returning the cached catalog.
+         * Must be shorter than {@link #ttl}.
+         */
+        private Duration refreshAfter = Duration.ofMinutes(1);
+
+        /**
+         * Upper bound for the total number of rooms held across all cached catalogs.
+         */
+        private long maxRooms = 200_000;
+
+        /**
+         * Serve the last successfully loaded catalog when hotel-service can't be reached
+         * (including while the circuit breaker is open), instead of failing the search.
+         */
+        private boolean staleWhileRevalidate = true;
+
+        /**
+         * Oldest catalog that may be served in stale-while-revalidate mode.
+         */
+        private Duration maxStale = Duration.ofHours(1);
+    }
+}
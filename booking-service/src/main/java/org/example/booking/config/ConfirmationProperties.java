@@ -0,0 +1,32 @@
+package org.example.booking.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "booking.confirmation")
+public class ConfirmationProperties {
+
+    public enum Mode {
+        /**
+         * createBooking calls hotel-service itself and answers CONFIRMED or 409.
+         */
+        SYNC,
+        /**
+         * createBooking answers PENDING right after the local commit; the outbox dispatcher confirms.
+         */
+        ASYNC
+    }
+
+    private Mode mode = Mode.SYNC;
+
+    /**
+     * In SYNC mode the outbox CONFIRM command is scheduled this far ahead as a fallback, so a booking
+     * whose request died between the local commit and the hotel confirm still gets finished.
+     */
+    private Duration pendingTimeout = Duration.ofMinutes(2);
+}
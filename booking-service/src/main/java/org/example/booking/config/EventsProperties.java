@@ -0,0 +1,37 @@
+package org.example.booking.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "booking.events")
+public class EventsProperties {
+
+    public enum Transport {
+        /**
+         * Events only reach this instance's subscribers, on the committing thread. Enough for a single instance.
+         */
+        IN_PROCESS,
+        /**
+         * In-JVM stand-in for a broker: every context on the same {@link #channel} receives every event,
+         * in order, on its own delivery thread. Lets tests run several instances against one stream.
+         */
+        LOCAL
+    }
+
+    private Transport transport = Transport.IN_PROCESS;
+
+    /**
+     * Channel the local transport joins. Instances on the same channel see each other's events.
+     */
+    private String channel = "booking-events";
+
+    /**
+     * Pause before the local transport redelivers an event whose handling failed.
+     */
+    private Duration redeliveryDelay = Duration.ofMillis(100);
+}
@@ -0,0 +1,69 @@
+package org.example.booking.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "booking.hotel-client")
+public class HotelClientProperties {
+
+    public enum Mode {
+        /**
+         * {@code RestTemplate} on the JDK {@code HttpClient}; every call holds the calling thread until it returns.
+         */
+        BLOCKING,
+        /**
+         * {@code WebClient} on a pooled Reactor Netty client; calls wait on the event loop, not on a thread per call.
+         */
+        REACTIVE
+    }
+
+    private Mode mode = Mode.BLOCKING;
+
+    /**
+     * Base URL of hotel-service. The default is resolved through the load balancer.
+     */
+    private String baseUrl = "http://hotel-service";
+
+    /**
+     * Longest wait for a TCP connection to hotel-service.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Longest wait for a response to one call, per attempt. Retries each get the full timeout again.
+     */
+    private Duration readTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Try HTTP/2 over cleartext (h2c upgrade), staying on HTTP/1.1 when hotel-service doesn't support it.
+     */
+    private boolean http2 = false;
+
+    private final Pool pool = new Pool();
+
+    @Getter
+    @Setter
+    public static class Pool {
+
+        /**
+         * Connections kept open to hotel-service, reactive client only. The blocking client pools through
+         * the JDK {@code HttpClient}, bounded by the number of calling threads.
+         */
+        private int maxConnections = 200;
+
+        /**
+         * How long a call waits for a free connection once all of them are busy.
+         */
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+
+        /**
+         * Idle connections are closed after this long.
+         */
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+    }
+}
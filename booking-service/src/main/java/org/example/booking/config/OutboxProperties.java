@@ -0,0 +1,45 @@
+package org.example.booking.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "booking.outbox")
+public class OutboxProperties {
+
+    /**
+     * Deliver outbox commands from this instance. Commands are still written when disabled.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Max commands claimed per dispatcher round.
+     */
+    private int batchSize = 50;
+
+    /**
+     * How long claimed commands stay hidden from other dispatchers.
+     */
+    private Duration lease = Duration.ofMinutes(1);
+
+    /**
+     * Delivery attempts before a command is given up. An undeliverable CONFIRM cancels its booking.
+     */
+    private int maxAttempts = 20;
+
+    /**
+     * Delay after the first failed attempt; doubles on each further failure up to {@link #maxBackoff}.
+     */
+    private Duration initialBackoff = Duration.ofSeconds(1);
+
+    private Duration maxBackoff = Duration.ofMinutes(5);
+
+    /**
+     * How long delivered, failed and discarded commands are kept before the retention sweep deletes them.
+     */
+    private Duration retention = Duration.ofDays(7);
+}
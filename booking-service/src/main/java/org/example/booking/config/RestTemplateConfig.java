@@ -3,15 +3,28 @@ package org.example.booking.config;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+
 @Configuration
 public class RestTemplateConfig {
 
+    /**
+     * On the JDK {@link HttpClient}, which keeps connections alive and reuses them, unlike the
+     * {@code HttpURLConnection} default; connect and read timeouts keep a stalled hotel-service from
+     * holding request threads.
+     */
     @Bean
     @LoadBalanced
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(HotelClientProperties properties) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(properties.getConnectTimeout())
+                .version(properties.isHttp2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(properties.getReadTimeout());
+        return new RestTemplate(requestFactory);
     }
 }
-
@@ -0,0 +1,51 @@
+package org.example.booking.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Pooled Reactor Netty client behind {@link org.example.booking.client.ReactiveHotelClient},
+ * created only when {@code booking.hotel-client.mode=reactive}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "booking.hotel-client.mode", havingValue = "reactive")
+public class WebClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider hotelConnectionProvider(HotelClientProperties properties) {
+        HotelClientProperties.Pool pool = properties.getPool();
+        return ConnectionProvider.builder("hotel-service")
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .build();
+    }
+
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder hotelWebClientBuilder(ConnectionProvider hotelConnectionProvider,
+                                                   HotelClientProperties properties) {
+        HttpClient httpClient = HttpClient.create(hotelConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getReadTimeout())
+                .protocol(properties.isHttp2()
+                        ? new HttpProtocol[]{HttpProtocol.H2C, HttpProtocol.HTTP11}
+                        : new HttpProtocol[]{HttpProtocol.HTTP11});
+        return WebClient.builder()
+                .baseUrl(properties.getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient));
+    }
+
+    @Bean
+    public WebClient hotelWebClient(WebClient.Builder hotelWebClientBuilder) {
+        return hotelWebClientBuilder.build();
+    }
+}
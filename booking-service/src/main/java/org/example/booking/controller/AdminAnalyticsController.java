@@ -0,0 +1,30 @@
+package org.example.booking.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.booking.dto.OccupancyResponse;
+import org.example.booking.service.OccupancyAnalytics;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/bookings/admin/analytics")
+@RequiredArgsConstructor
+public class AdminAnalyticsController {
+
+    private final OccupancyAnalytics occupancyAnalytics;
+
+    @GetMapping("/occupancy")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<OccupancyResponse> getOccupancy(@RequestParam(required = false) Long hotelId,
+                                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(occupancyAnalytics.occupancy(hotelId, from, to));
+    }
+}
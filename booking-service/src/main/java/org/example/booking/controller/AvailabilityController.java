@@ -2,7 +2,7 @@ package org.example.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.example.booking.dto.AvailableRoomResponse;
-import org.example.booking.service.AvailabilityService;
+import org.example.booking.service.AvailabilitySearchCoalescer;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -20,7 +20,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class AvailabilityController {
 
-    private final AvailabilityService availabilityService;
+    private final AvailabilitySearchCoalescer availabilitySearch;
 
     @GetMapping("/rooms")
     public ResponseEntity<List<AvailableRoomResponse>> getAvailableRooms(@AuthenticationPrincipal Jwt jwt,
@@ -30,7 +30,7 @@ public class AvailabilityController {
                                                                          @RequestParam(required = false) Integer limit) {
         Long ignoredUserId = Long.valueOf(jwt.getSubject());
         return ResponseEntity.ok(
-                availabilityService.getAvailableRooms(startDate, endDate, hotelId, limit, false)
+                availabilitySearch.getAvailableRooms(startDate, endDate, hotelId, limit, false)
         );
     }
 
@@ -42,7 +42,7 @@ public class AvailabilityController {
                                                                            @RequestParam(required = false) Integer limit) {
         Long ignoredUserId = Long.valueOf(jwt.getSubject());
         return ResponseEntity.ok(
-                availabilityService.getAvailableRooms(startDate, endDate, hotelId, limit, true)
+                availabilitySearch.getAvailableRooms(startDate, endDate, hotelId, limit, true)
         );
     }
 }
@@ -2,6 +2,7 @@ package org.example.booking.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.example.booking.dto.BookingPage;
 import org.example.booking.dto.BookingRequest;
 import org.example.booking.dto.BookingResponse;
 import org.example.booking.service.BookingService;
@@ -17,6 +18,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BookingController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
 
     @PostMapping
@@ -35,6 +38,19 @@ public class BookingController {
         return ResponseEntity.ok(bookingService.getUserBookings(userId, page, size));
     }
 
+    @GetMapping("/history")
+    public ResponseEntity<List<BookingResponse>> getBookingHistory(@AuthenticationPrincipal Jwt jwt,
+                                                                   @RequestParam(defaultValue = "20") int limit,
+                                                                   @RequestParam(required = false) String cursor) {
+        Long userId = Long.valueOf(jwt.getSubject());
+        BookingPage page = bookingService.getUserBookingHistory(userId, limit, cursor);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<BookingResponse> getBooking(@AuthenticationPrincipal Jwt jwt,
                                                       @PathVariable Long id) {
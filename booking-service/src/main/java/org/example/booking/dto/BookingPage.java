@@ -0,0 +1,18 @@
+package org.example.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class BookingPage {
+
+    private List<BookingResponse> items;
+
+    /**
+     * Opaque cursor of the next page, {@code null} on the last page.
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,28 @@
+package org.example.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+public class OccupancyResponse {
+
+    /**
+     * Null when the curve covers all hotels.
+     */
+    private Long hotelId;
+    private LocalDate from;
+    private LocalDate to;
+    private List<DayOccupancy> days;
+
+    @Data
+    @Builder
+    public static class DayOccupancy {
+
+        private LocalDate date;
+        private long occupiedRooms;
+    }
+}
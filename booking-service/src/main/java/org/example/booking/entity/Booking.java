@@ -20,10 +20,19 @@ import java.time.OffsetDateTime;
         name = "bookings",
         uniqueConstraints = {
                 @UniqueConstraint(columnNames = {"userId", "idempotencyKey"})
+        },
+        indexes = {
+                @Index(name = "idx_bookings_user_start_id", columnList = "userId, startDate DESC, id DESC"),
+                @Index(name = "idx_bookings_room_status_dates", columnList = "roomId, status, startDate, endDate")
         }
 )
 public class Booking {
 
+    /**
+     * PostgreSQL exclusion constraint rejecting overlapping active bookings of a room.
+     */
+    public static final String NO_ACTIVE_OVERLAP_CONSTRAINT = "bookings_no_active_overlap";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
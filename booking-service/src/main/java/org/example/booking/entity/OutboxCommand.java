@@ -0,0 +1,107 @@
+package org.example.booking.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * A hotel-service command written in the same transaction as the booking change that needs it,
+ * and delivered later by {@code OutboxDispatcher}. {@link #commandId} is derived from the booking
+ * ({@code confirm-42}, {@code release-42}), so a booking has at most one command of each type
+ * and re-deliveries carry the same booking id hotel-service deduplicates on.
+ */
+@Setter
+@Getter
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(
+        name = "booking_outbox",
+        indexes = {
+                @Index(name = "idx_outbox_due", columnList = "state, nextAttemptAt, id"),
+                @Index(name = "idx_outbox_claim", columnList = "claimToken"),
+                @Index(name = "idx_outbox_settled", columnList = "state, updatedAt")
+        }
+)
+public class OutboxCommand {
+
+    public enum Type {
+        CONFIRM,
+        RELEASE
+    }
+
+    public enum State {
+        PENDING,
+        DELIVERED,
+        FAILED,
+        DISCARDED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private String commandId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Type type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private State state;
+
+    @Column(nullable = false)
+    private Long bookingId;
+
+    @Column(nullable = false)
+    private Long roomId;
+
+    @Column
+    private LocalDate startDate;
+
+    @Column
+    private LocalDate endDate;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private OffsetDateTime nextAttemptAt;
+
+    @Column
+    private String claimToken;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(nullable = false)
+    private OffsetDateTime updatedAt;
+
+    public static String commandId(Type type, Long bookingId) {
+        return type.name().toLowerCase() + "-" + bookingId;
+    }
+
+    @PrePersist
+    public void prePersist() {
+        OffsetDateTime now = OffsetDateTime.now();
+        this.createdAt = now;
+        this.updatedAt = now;
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        this.updatedAt = OffsetDateTime.now();
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.booking.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+
+/**
+ * One row per booked room. Every admitted booking bumps the room's version, so two instances
+ * admitting bookings for the same room at once can't both commit.
+ */
+@Setter
+@Getter
+@Entity
+@NoArgsConstructor
+@Table(name = "room_versions")
+public class RoomVersion {
+
+    @Id
+    private Long roomId;
+
+    @Version
+    private Long version;
+
+    @Column(nullable = false)
+    private OffsetDateTime updatedAt;
+
+    public RoomVersion(Long roomId) {
+        this.roomId = roomId;
+    }
+}
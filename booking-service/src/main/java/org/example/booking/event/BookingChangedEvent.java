@@ -0,0 +1,40 @@
+package org.example.booking.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.example.booking.entity.Booking;
+
+import java.time.LocalDate;
+
+/**
+ * Published by {@code BookingService} through the {@link BookingEventBus} whenever a booking is created
+ * or changes status. Derived state consumes it as a {@link BookingEventSubscriber}, on every instance.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class BookingChangedEvent {
+
+    public enum Type {
+        CREATED, CONFIRMED, CANCELLED
+    }
+
+    private final Type type;
+    private final Long bookingId;
+    private final Long hotelId;
+    private final Long roomId;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+
+    public static BookingChangedEvent of(Type type, Booking booking) {
+        return new BookingChangedEvent(
+                type,
+                booking.getId(),
+                booking.getHotelId(),
+                booking.getRoomId(),
+                booking.getStartDate(),
+                booking.getEndDate()
+        );
+    }
+}
@@ -0,0 +1,222 @@
+package org.example.booking.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Publishes booking changes to every booking-service instance and feeds the ones received to the local
+ * {@link BookingEventSubscriber}s.
+ * <p>
+ * A change published inside a transaction goes out after it commits, so subscribers never see a
+ * change that was rolled back, and can always find it in the database. Transactions take their place
+ * in the outgoing order as they start committing and are sent in that order once they complete: a
+ * transaction changing a booking has read it after the one that created it committed, so events of one
+ * booking are sent in the order they happened even when the transactions' completions race. Outgoing
+ * events are numbered
+ * per instance ({@link #getOrigin() origin}); incoming ones are checked against the last number seen
+ * from their origin. Redeliveries are dropped, so subscribers apply each change once even though the
+ * transport is at-least-once. A hole, or an origin first heard of mid-stream, means changes may
+ * have been missed, and subscribers resynchronize instead.
+ * <p>
+ * Events are numbered and queued under the send lock, then handed to the transport outside it by one
+ * thread at a time, in queue order: the in-process transport runs subscribers (and their resyncs) on the
+ * sending thread, and they must not hold up every other commit. Receiving holds a lock, not a monitor,
+ * so deliveries from one origin are applied one at a time.
+ */
+@Slf4j
+@Component
+public class BookingEventBus {
+
+    private final String origin = UUID.randomUUID().toString();
+    private final BookingEventTransport transport;
+    private final List<BookingEventSubscriber> subscribers;
+    private final ReentrantLock sendLock = new ReentrantLock();
+    private final ReentrantLock receiveLock = new ReentrantLock();
+    private final Map<String, Long> lastSequences = new HashMap<>();
+
+    /**
+     * Outcome of each committing transaction by its place in the outgoing order, until every earlier one
+     * has completed too: its event, or {@code null} if it rolled back after all.
+     */
+    private final Map<Long, BookingChangedEvent> completed = new HashMap<>();
+
+    /**
+     * Numbered events waiting for the transport, and whether a thread is already sending them.
+     */
+    private final Queue<BookingEventEnvelope> outgoing = new ArrayDeque<>();
+    private boolean sending;
+
+    private final Counter applied;
+    private final Counter duplicates;
+    private final Counter gaps;
+    private long sequence;
+    private long nextPlace;
+    private long nextToSend;
+
+    public BookingEventBus(BookingEventTransport transport,
+                           List<BookingEventSubscriber> subscribers,
+                           MeterRegistry meterRegistry) {
+        this.transport = transport;
+        this.subscribers = List.copyOf(subscribers);
+        this.applied = received(meterRegistry, "applied");
+        this.duplicates = received(meterRegistry, "duplicate");
+        this.gaps = received(meterRegistry, "gap");
+        transport.subscribe(this::receive);
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Sends the change once the current transaction commits, or right away outside a transaction.
+     */
+    public void publish(BookingChangedEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private long place = -1;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    place = takePlace();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (place >= 0) {
+                        complete(place, status == STATUS_COMMITTED ? event : null);
+                    }
+                }
+            });
+        } else {
+            complete(takePlace(), event);
+        }
+    }
+
+    private long takePlace() {
+        sendLock.lock();
+        try {
+            return nextPlace++;
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    /**
+     * Records the outcome at {@code place}, queues every event whose earlier places have all completed and
+     * sends the queue unless another thread already is.
+     */
+    private void complete(long place, BookingChangedEvent event) {
+        sendLock.lock();
+        try {
+            completed.put(place, event);
+            while (completed.containsKey(nextToSend)) {
+                BookingChangedEvent next = completed.remove(nextToSend++);
+                if (next != null) {
+                    outgoing.add(new BookingEventEnvelope(origin, ++sequence, next));
+                }
+            }
+            if (sending || outgoing.isEmpty()) {
+                return;
+            }
+            sending = true;
+        } finally {
+            sendLock.unlock();
+        }
+        sendOutgoing();
+    }
+
+    /**
+     * Sends queued events until none are left, including the ones queued meanwhile. If the transport
+     * fails, the rest stay queued for the next completion to send.
+     */
+    private void sendOutgoing() {
+        boolean drained = false;
+        try {
+            while (true) {
+                BookingEventEnvelope next;
+                sendLock.lock();
+                try {
+                    next = outgoing.poll();
+                    if (next == null) {
+                        sending = false;
+                        drained = true;
+                        return;
+                    }
+                } finally {
+                    sendLock.unlock();
+                }
+                transport.send(next);
+            }
+        } finally {
+            if (!drained) {
+                sendLock.lock();
+                try {
+                    sending = false;
+                } finally {
+                    sendLock.unlock();
+                }
+            }
+        }
+    }
+
+    void receive(BookingEventEnvelope envelope) {
+        receiveLock.lock();
+        try {
+            Long last = lastSequences.get(envelope.origin());
+            long expected = last == null ? 1 : last + 1;
+            if (envelope.sequence() < expected) {
+                duplicates.increment();
+                return;
+            }
+            lastSequences.put(envelope.origin(), envelope.sequence());
+            if (envelope.sequence() > expected) {
+                gaps.increment();
+                log.warn("Booking events {}..{} from {} missed, resynchronizing",
+                        expected, envelope.sequence() - 1, envelope.origin());
+                subscribers.forEach(BookingEventBus::resync);
+                return;
+            }
+            applied.increment();
+            for (BookingEventSubscriber subscriber : subscribers) {
+                try {
+                    subscriber.onBookingChanged(envelope.event());
+                } catch (RuntimeException ex) {
+                    log.warn("{} failed on booking event {} from {}, resynchronizing it: {}",
+                            subscriber.getClass().getSimpleName(), envelope.sequence(), envelope.origin(),
+                            ex.getMessage());
+                    resync(subscriber);
+                }
+            }
+        } finally {
+            receiveLock.unlock();
+        }
+    }
+
+    private static void resync(BookingEventSubscriber subscriber) {
+        try {
+            subscriber.onEventsMissed();
+        } catch (RuntimeException ex) {
+            log.error("{} failed to resynchronize: {}", subscriber.getClass().getSimpleName(), ex.getMessage());
+        }
+    }
+
+    private static Counter received(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("booking.events.received")
+                .tag("outcome", outcome)
+                .description("Booking events received from the bus, by what was done with them")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.booking.event;
+
+/**
+ * A {@link BookingChangedEvent} as carried by a {@link BookingEventTransport}: numbered by the instance that
+ * published it, starting at 1, without holes. {@code origin} identifies that instance for its lifetime.
+ */
+public record BookingEventEnvelope(String origin, long sequence, BookingChangedEvent event) {
+}
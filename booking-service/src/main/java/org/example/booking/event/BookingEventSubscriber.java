@@ -0,0 +1,17 @@
+package org.example.booking.event;
+
+/**
+ * Derived state kept up to date from the {@link BookingEventBus}. Beans implementing it are subscribed
+ * automatically and get every booking change, from every instance, once and in publishing order per instance.
+ */
+public interface BookingEventSubscriber {
+
+    void onBookingChanged(BookingChangedEvent event);
+
+    /**
+     * Called instead of {@link #onBookingChanged} when events may have been missed: a hole in an instance's
+     * sequence, an instance first heard of mid-stream, or a failure in this subscriber. The subscriber must
+     * resynchronize from the database, which already holds every change up to the one that revealed the gap.
+     */
+    void onEventsMissed();
+}
@@ -0,0 +1,15 @@
+package org.example.booking.event;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries booking events between booking-service instances. Implementations deliver every sent
+ * envelope to every subscribed handler, the sending instance's included, at least once and in the
+ * order it was sent by its origin. A handler that throws gets the same envelope again.
+ */
+public interface BookingEventTransport {
+
+    void send(BookingEventEnvelope envelope);
+
+    void subscribe(Consumer<BookingEventEnvelope> handler);
+}
@@ -0,0 +1,29 @@
+package org.example.booking.event;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Hands events straight to this instance's handlers on the sending thread. Nothing can be lost or
+ * reordered on the way, so a handler that throws is not called again.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.events.transport", havingValue = "in-process", matchIfMissing = true)
+public class InProcessBookingEventTransport implements BookingEventTransport {
+
+    private final List<Consumer<BookingEventEnvelope>> handlers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void send(BookingEventEnvelope envelope) {
+        handlers.forEach(handler -> handler.accept(envelope));
+    }
+
+    @Override
+    public void subscribe(Consumer<BookingEventEnvelope> handler) {
+        handlers.add(handler);
+    }
+}
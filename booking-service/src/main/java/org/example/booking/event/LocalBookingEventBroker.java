@@ -0,0 +1,102 @@
+package org.example.booking.event;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * In-JVM stand-in for a message broker, one per channel name. Every subscription has its own queue and
+ * delivery thread: it gets every envelope published after it subscribed, in publishing order, and an
+ * envelope its handler throws on is redelivered until the handler accepts it. Published envelopes are
+ * only kept until every subscription has taken them; nothing survives the JVM.
+ */
+@Slf4j
+public final class LocalBookingEventBroker {
+
+    private static final ConcurrentMap<String, LocalBookingEventBroker> CHANNELS = new ConcurrentHashMap<>();
+
+    private final String channel;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ReentrantLock publishLock = new ReentrantLock();
+
+    private LocalBookingEventBroker(String channel) {
+        this.channel = channel;
+    }
+
+    public static LocalBookingEventBroker channel(String name) {
+        return CHANNELS.computeIfAbsent(name, LocalBookingEventBroker::new);
+    }
+
+    public void publish(BookingEventEnvelope envelope) {
+        // one order for all subscriptions, whoever publishes
+        publishLock.lock();
+        try {
+            subscriptions.forEach(subscription -> subscription.queue.add(envelope));
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    public Subscription subscribe(Consumer<BookingEventEnvelope> handler, Duration redeliveryDelay) {
+        Subscription subscription = new Subscription(handler, redeliveryDelay);
+        subscriptions.add(subscription);
+        subscription.thread.start();
+        return subscription;
+    }
+
+    public final class Subscription implements AutoCloseable {
+
+        private final BlockingQueue<BookingEventEnvelope> queue = new LinkedBlockingQueue<>();
+        private final Consumer<BookingEventEnvelope> handler;
+        private final Duration redeliveryDelay;
+        private final Thread thread;
+        private volatile boolean closed;
+
+        private Subscription(Consumer<BookingEventEnvelope> handler, Duration redeliveryDelay) {
+            this.handler = handler;
+            this.redeliveryDelay = redeliveryDelay;
+            this.thread = new Thread(this::deliver, "booking-events-" + channel);
+            this.thread.setDaemon(true);
+        }
+
+        private void deliver() {
+            try {
+                while (!closed) {
+                    BookingEventEnvelope envelope = queue.take();
+                    while (!closed && !handle(envelope)) {
+                        TimeUnit.NANOSECONDS.sleep(redeliveryDelay.toNanos());
+                    }
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private boolean handle(BookingEventEnvelope envelope) {
+            try {
+                handler.accept(envelope);
+                return true;
+            } catch (RuntimeException ex) {
+                log.warn("Booking event {} from {} not accepted, redelivering: {}",
+                        envelope.sequence(), envelope.origin(), ex.getMessage());
+                return false;
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            subscriptions.remove(this);
+            thread.interrupt();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.booking.event;
+
+import jakarta.annotation.PreDestroy;
+import org.example.booking.config.EventsProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * {@link BookingEventTransport} on the {@link LocalBookingEventBroker} channel named by
+ * {@code booking.events.channel}, shared by every application context in the JVM.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.events.transport", havingValue = "local")
+public class LocalBookingEventTransport implements BookingEventTransport {
+
+    private final LocalBookingEventBroker broker;
+    private final EventsProperties properties;
+    private final List<LocalBookingEventBroker.Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    public LocalBookingEventTransport(EventsProperties properties) {
+        this.broker = LocalBookingEventBroker.channel(properties.getChannel());
+        this.properties = properties;
+    }
+
+    @Override
+    public void send(BookingEventEnvelope envelope) {
+        broker.publish(envelope);
+    }
+
+    @Override
+    public void subscribe(Consumer<BookingEventEnvelope> handler) {
+        subscriptions.add(broker.subscribe(handler, properties.getRedeliveryDelay()));
+    }
+
+    @PreDestroy
+    public void close() {
+        subscriptions.forEach(LocalBookingEventBroker.Subscription::close);
+    }
+}
@@ -0,0 +1,9 @@
+package org.example.booking.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Date range of one booking, read without hydrating the {@code Booking} entity.
+ */
+public record BookingInterval(Long bookingId, Long roomId, LocalDate startDate, LocalDate endDate) {
+}
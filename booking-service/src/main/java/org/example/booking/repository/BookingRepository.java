@@ -3,24 +3,55 @@ package org.example.booking.repository;
 import jakarta.persistence.LockModeType;
 import org.example.booking.entity.Booking;
 import org.example.booking.entity.Status;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     List<Booking> findByUserId(Long userId);
 
-    Page<Booking> findByUserId(Long userId, Pageable pageable);
+    /**
+     * One page of the user's bookings as read-only rows; returns a list, so no count query is run.
+     */
+    @Query("select new org.example.booking.repository.BookingView(" +
+           "b.id, b.hotelId, b.roomId, b.startDate, b.endDate, b.status) " +
+           "from Booking b where b.userId = :userId")
+    List<BookingView> findViewsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Bookings of the user after the given position in (start date DESC, id DESC) order. Served by
+     * {@code idx_bookings_user_start_id}, so a page costs the same however deep it is.
+     */
+    @Query("select new org.example.booking.repository.BookingView(" +
+           "b.id, b.hotelId, b.roomId, b.startDate, b.endDate, b.status) " +
+           "from Booking b where b.userId = :userId " +
+           // redundant with the next condition, but lets the index seek on start_date too
+           "and b.startDate <= :afterStartDate " +
+           "and (b.startDate < :afterStartDate " +
+           "     or (b.startDate = :afterStartDate and b.id < :afterId)) " +
+           "order by b.startDate desc, b.id desc")
+    List<BookingView> findHistoryPage(@Param("userId") Long userId,
+                                      @Param("afterStartDate") LocalDate afterStartDate,
+                                      @Param("afterId") long afterId,
+                                      Limit limit);
 
     java.util.Optional<Booking> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Booking b where b.id = :id")
+    Optional<Booking> findByIdForUpdate(@Param("id") Long id);
+
+    List<Booking> findByStatusAndUpdatedAtBeforeOrderByUpdatedAt(Status status, OffsetDateTime before, Limit limit);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("select b from Booking b " +
            "where b.roomId = :roomId " +
@@ -41,4 +72,42 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
                                   @Param("startDate") LocalDate startDate,
                                   @Param("endDate") LocalDate endDate,
                                   @Param("statuses") Collection<Status> statuses);
+
+    @Query("select count(b) > 0 from Booking b " +
+           "where b.roomId = :roomId " +
+           "and b.status in :statuses " +
+           "and b.startDate < :endDate " +
+           "and b.endDate > :startDate")
+    boolean existsOverlapping(@Param("roomId") Long roomId,
+                              @Param("startDate") LocalDate startDate,
+                              @Param("endDate") LocalDate endDate,
+                              @Param("statuses") Collection<Status> statuses);
+
+    @Query("select distinct b.roomId from Booking b " +
+           "where b.roomId in :roomIds " +
+           "and b.status in :statuses " +
+           "and b.startDate < :endDate " +
+           "and b.endDate > :startDate")
+    List<Long> findBusyRoomIds(@Param("roomIds") Collection<Long> roomIds,
+                               @Param("startDate") LocalDate startDate,
+                               @Param("endDate") LocalDate endDate,
+                               @Param("statuses") Collection<Status> statuses);
+
+    @Query("select new org.example.booking.repository.BookingInterval(b.id, b.roomId, b.startDate, b.endDate) " +
+           "from Booking b " +
+           "where b.status in :statuses " +
+           "and b.endDate > :from")
+    List<BookingInterval> findActiveIntervalsEndingAfter(@Param("from") LocalDate from,
+                                                         @Param("statuses") Collection<Status> statuses);
+
+    @Query("select new org.example.booking.repository.HotelBookingInterval(b.id, b.hotelId, b.startDate, b.endDate) " +
+           "from Booking b " +
+           "where b.status in :statuses " +
+           "and (:hotelId is null or b.hotelId = :hotelId) " +
+           "and b.startDate < :to " +
+           "and b.endDate > :from")
+    List<HotelBookingInterval> findActiveHotelIntervals(@Param("hotelId") Long hotelId,
+                                                        @Param("from") LocalDate from,
+                                                        @Param("to") LocalDate to,
+                                                        @Param("statuses") Collection<Status> statuses);
 }
@@ -0,0 +1,11 @@
+package org.example.booking.repository;
+
+import org.example.booking.entity.Status;
+
+import java.time.LocalDate;
+
+/**
+ * Fields of a booking shown to its owner, read without hydrating the {@code Booking} entity.
+ */
+public record BookingView(Long id, Long hotelId, Long roomId, LocalDate startDate, LocalDate endDate, Status status) {
+}
@@ -0,0 +1,9 @@
+package org.example.booking.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Date range of one booking with its hotel, read without hydrating the {@code Booking} entity.
+ */
+public record HotelBookingInterval(Long bookingId, Long hotelId, LocalDate startDate, LocalDate endDate) {
+}
@@ -0,0 +1,58 @@
+package org.example.booking.repository;
+
+import org.example.booking.entity.OutboxCommand;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface OutboxCommandRepository extends JpaRepository<OutboxCommand, Long> {
+
+    Optional<OutboxCommand> findByCommandId(String commandId);
+
+    List<OutboxCommand> findByClaimToken(String claimToken);
+
+    @Query("select o.id from OutboxCommand o " +
+           "where o.state = :state and o.nextAttemptAt <= :now " +
+           "order by o.nextAttemptAt, o.id")
+    List<Long> findDueIds(@Param("state") OutboxCommand.State state,
+                          @Param("now") OffsetDateTime now,
+                          Limit limit);
+
+    /**
+     * Claims the given commands if they are still due. Pushing {@code nextAttemptAt} out to the lease end
+     * hides them from other dispatchers; if this one dies they become due again once the lease expires.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update OutboxCommand o set o.claimToken = :token, o.nextAttemptAt = :leaseUntil " +
+           "where o.id in :ids and o.state = :state and o.nextAttemptAt <= :now")
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("token") String token,
+              @Param("state") OutboxCommand.State state,
+              @Param("now") OffsetDateTime now,
+              @Param("leaseUntil") OffsetDateTime leaseUntil);
+
+    @Query("select o.id from OutboxCommand o " +
+           "where o.state in :states and o.updatedAt < :settledBefore " +
+           "order by o.id")
+    List<Long> findSettledIds(@Param("states") Collection<OutboxCommand.State> states,
+                              @Param("settledBefore") OffsetDateTime settledBefore,
+                              Limit limit);
+
+    /**
+     * Deletes the given commands if they are still settled since before {@code settledBefore}; one
+     * re-enqueued in the meantime is kept.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("delete from OutboxCommand o " +
+           "where o.id in :ids and o.state in :states and o.updatedAt < :settledBefore")
+    int deleteSettled(@Param("ids") Collection<Long> ids,
+                      @Param("states") Collection<OutboxCommand.State> states,
+                      @Param("settledBefore") OffsetDateTime settledBefore);
+}
@@ -0,0 +1,7 @@
+package org.example.booking.repository;
+
+import org.example.booking.entity.RoomVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface RoomVersionRepository extends JpaRepository<RoomVersion, Long> {
+}
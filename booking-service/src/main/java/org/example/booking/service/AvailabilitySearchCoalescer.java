@@ -0,0 +1,196 @@
+package org.example.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.booking.config.AvailabilityProperties;
+import org.example.booking.dto.AvailableRoomResponse;
+import org.example.booking.event.BookingChangedEvent;
+import org.example.booking.event.BookingEventSubscriber;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-flight front of {@link AvailabilityService#getAvailableRooms}: identical searches (same dates,
+ * hotel and listing) arriving while one is being evaluated wait for that evaluation instead of running
+ * their own, and a finished evaluation keeps answering them for {@code result-ttl}.
+ * <p>
+ * An evaluation runs with the limit of the caller that started it, so limited searches keep stopping
+ * early. It serves every identical search asking for no more rooms, each cut to its own {@code limit},
+ * and, once finished, any search at all if it found fewer rooms than its limit (that's every free room).
+ * A search wanting more starts a larger evaluation, which takes over for the rooms it finds.
+ * <p>
+ * Every hotel has a change counter, bumped by the {@code BookingEventBus} whenever a booking in it is
+ * created or cancelled on any instance (searches across all hotels follow a global one). Evaluations
+ * are stamped with the counter they started under, and are neither joined nor cached once it has moved
+ * on, so a search never sees availability older than the last booking change it could have observed.
+ * <p>
+ * The evaluation runs on the first caller's thread outside any lock; the others wait on its future.
+ */
+@Component
+public class AvailabilitySearchCoalescer implements BookingEventSubscriber {
+
+    private final AvailabilityService availabilityService;
+    private final AvailabilityProperties.Coalescing properties;
+    private final ConcurrentMap<SearchKey, Evaluation> inFlight = new ConcurrentHashMap<>();
+    private final Cache<SearchKey, Evaluation> recent;
+    private final AtomicLong allHotelsVersion = new AtomicLong();
+    private final ConcurrentMap<Long, AtomicLong> hotelVersions = new ConcurrentHashMap<>();
+    private final AtomicLong resyncs = new AtomicLong();
+    private final Counter evaluated;
+    private final Counter coalesced;
+    private final Counter cached;
+
+    @Autowired
+    public AvailabilitySearchCoalescer(AvailabilityService availabilityService,
+                                       AvailabilityProperties properties,
+                                       MeterRegistry meterRegistry) {
+        this(availabilityService, properties, meterRegistry, Ticker.systemTicker());
+    }
+
+    AvailabilitySearchCoalescer(AvailabilityService availabilityService,
+                                AvailabilityProperties properties,
+                                MeterRegistry meterRegistry,
+                                Ticker ticker) {
+        this.availabilityService = availabilityService;
+        this.properties = properties.getCoalescing();
+        this.recent = Caffeine.newBuilder()
+                .ticker(ticker)
+                .expireAfterWrite(this.properties.getResultTtl())
+                .maximumSize(this.properties.getMaxResults())
+                .build();
+        this.evaluated = searches(meterRegistry, "evaluated");
+        this.coalesced = searches(meterRegistry, "coalesced");
+        this.cached = searches(meterRegistry, "cached");
+    }
+
+    public List<AvailableRoomResponse> getAvailableRooms(LocalDate startDate,
+                                                         LocalDate endDate,
+                                                         Long hotelId,
+                                                         Integer limit,
+                                                         boolean recommend) {
+        if (!properties.isEnabled()) {
+            return availabilityService.getAvailableRooms(startDate, endDate, hotelId, limit, recommend);
+        }
+        SearchKey key = new SearchKey(startDate, endDate, hotelId, recommend);
+        long version = version(hotelId);
+        int wanted = limit != null && limit > 0 ? limit : Integer.MAX_VALUE;
+
+        Evaluation done = recent.getIfPresent(key);
+        if (done != null && done.version() == version && done.answers(wanted)) {
+            cached.increment();
+            return limited(done.rooms().join(), limit);
+        }
+
+        Evaluation own = new Evaluation(version, wanted, new CompletableFuture<>());
+        Evaluation leader = inFlight.compute(key,
+                (k, current) -> current != null && current.version() == version && current.limit() >= wanted
+                        ? current
+                        : own);
+        if (leader != own) {
+            coalesced.increment();
+            return limited(await(leader), limit);
+        }
+
+        evaluated.increment();
+        try {
+            List<AvailableRoomResponse> rooms = List.copyOf(availabilityService.getAvailableRooms(
+                    startDate, endDate, hotelId, wanted == Integer.MAX_VALUE ? null : wanted, recommend));
+            own.rooms().complete(rooms);
+            if (version(hotelId) == version && !properties.getResultTtl().isZero()) {
+                // keep whichever current evaluation covers more
+                recent.asMap().merge(key, own, (cachedEvaluation, finished) ->
+                        cachedEvaluation.version() == finished.version() && cachedEvaluation.limit() > finished.limit()
+                                ? cachedEvaluation
+                                : finished);
+            }
+            return limited(rooms, limit);
+        } catch (Throwable ex) {
+            // an Error too: followers are parked on this future
+            own.rooms().completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    @Override
+    public void onBookingChanged(BookingChangedEvent event) {
+        switch (event.getType()) {
+            case CREATED, CANCELLED -> {
+                if (event.getHotelId() != null) {
+                    hotelVersions.computeIfAbsent(event.getHotelId(), id -> new AtomicLong()).incrementAndGet();
+                }
+                allHotelsVersion.incrementAndGet();
+            }
+            default -> {
+                // PENDING -> CONFIRMED keeps the room occupied, availability is unchanged
+            }
+        }
+    }
+
+    /**
+     * Missed changes may be in any hotel: moves every search's version on.
+     */
+    @Override
+    public void onEventsMissed() {
+        resyncs.incrementAndGet();
+        recent.invalidateAll();
+    }
+
+    private long version(Long hotelId) {
+        if (hotelId == null) {
+            return allHotelsVersion.get() + resyncs.get();
+        }
+        AtomicLong version = hotelVersions.get(hotelId);
+        return (version == null ? 0 : version.get()) + resyncs.get();
+    }
+
+    private static List<AvailableRoomResponse> await(Evaluation evaluation) {
+        try {
+            return evaluation.rooms().join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private static List<AvailableRoomResponse> limited(List<AvailableRoomResponse> rooms, Integer limit) {
+        return limit != null && limit > 0 && limit < rooms.size() ? rooms.subList(0, limit) : rooms;
+    }
+
+    private static Counter searches(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("availability.searches")
+                .tag("outcome", outcome)
+                .description("Availability searches by how they were answered")
+                .register(meterRegistry);
+    }
+
+    private record SearchKey(LocalDate startDate, LocalDate endDate, Long hotelId, boolean recommend) {
+    }
+
+    private record Evaluation(long version, int limit, CompletableFuture<List<AvailableRoomResponse>> rooms) {
+
+        /**
+         * Whether this finished evaluation holds the first {@code wanted} free rooms.
+         */
+        boolean answers(int wanted) {
+            return limit >= wanted || rooms.join().size() < limit;
+        }
+    }
+}
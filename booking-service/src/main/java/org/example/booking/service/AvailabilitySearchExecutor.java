@@ -0,0 +1,68 @@
+package org.example.booking.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.booking.config.AvailabilityProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool that runs availability chunks when parallel evaluation is enabled.
+ * Threads are only started on first use.
+ */
+@Component
+public class AvailabilitySearchExecutor {
+
+    private final ExecutorService executor;
+    private final int parallelism;
+
+    public AvailabilitySearchExecutor(AvailabilityProperties properties) {
+        this.parallelism = Math.max(1, properties.getParallel().getParallelism());
+        this.executor = Executors.newFixedThreadPool(parallelism, namedThreads());
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public <T> Future<T> submit(Callable<T> task) {
+        return executor.submit(task);
+    }
+
+    /**
+     * Waits for a chunk result, rethrowing the chunk's own runtime exception.
+     */
+    public <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Availability search interrupted", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Availability search failed", ex.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static ThreadFactory namedThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "availability-search-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -1,27 +1,47 @@
 package org.example.booking.service;
 
 import lombok.RequiredArgsConstructor;
-import org.example.booking.client.HotelClient;
+import org.example.booking.client.RoomCatalogCache;
 import org.example.booking.client.dto.RoomSummary;
+import org.example.booking.config.AvailabilityProperties;
 import org.example.booking.dto.AvailableRoomResponse;
-import org.example.booking.entity.Booking;
 import org.example.booking.entity.Status;
 import org.example.booking.repository.BookingRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class AvailabilityService {
 
-    private final HotelClient hotelClient;
+    /**
+     * Max number of room ids bound into one IN (...) list of the busy-room query.
+     */
+    static final int BUSY_LOOKUP_CHUNK_SIZE = 500;
+
+    /**
+     * First chunk size for limited searches; chunks double up to {@link #BUSY_LOOKUP_CHUNK_SIZE}
+     * so small limits stop after one small query while unlimited searches still use full chunks.
+     */
+    private static final int MIN_CHUNK_SIZE = 32;
+
+    private static final List<Status> ACTIVE_STATUSES = Arrays.asList(Status.PENDING, Status.CONFIRMED);
+
+    private final RoomCatalogCache roomCatalog;
     private final BookingRepository bookingRepository;
+    private final RoomOccupancyIndex occupancyIndex;
+    private final AvailabilityProperties properties;
+    private final AvailabilitySearchExecutor searchExecutor;
 
     @Transactional(readOnly = true)
     public List<AvailableRoomResponse> getAvailableRooms(LocalDate startDate,
@@ -34,39 +54,125 @@ public class AvailabilityService {
         }
 
         List<RoomSummary> rooms = recommend
-                ? hotelClient.getRecommendedRooms()
-                : hotelClient.getAllRooms();
+                ? roomCatalog.getRecommendedRooms(hotelId)
+                : roomCatalog.getAllRooms(hotelId);
+        List<RoomSummary> ordered = inSearchOrder(rooms, recommend);
+
+        int wanted = limit != null && limit > 0 ? limit : Integer.MAX_VALUE;
+        boolean useIndex = occupancyIndex.canAnswer(startDate);
+        AvailabilityProperties.Parallel parallel = properties.getParallel();
+        if (!useIndex && parallel.isEnabled() && ordered.size() > parallel.getChunkSize()) {
+            return findFreeRoomsInParallel(ordered, startDate, endDate, wanted, parallel.getChunkSize());
+        }
+        List<AvailableRoomResponse> result = new ArrayList<>();
 
-        if (hotelId != null) {
-            rooms = rooms.stream()
-                    .filter(r -> hotelId.equals(r.getHotelId()))
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, Math.min(BUSY_LOOKUP_CHUNK_SIZE, saturatedDouble(wanted)));
+        int from = 0;
+        while (from < ordered.size() && result.size() < wanted) {
+            int to = Math.min(from + chunkSize, ordered.size());
+            List<RoomSummary> chunk = ordered.subList(from, to).stream()
+                    .filter(RoomSummary::getAvailable)
                     .collect(Collectors.toList());
+            Set<Long> busyRoomIds = useIndex
+                    ? Set.of()
+                    : findBusyRoomIds(chunk, startDate, endDate);
+            for (RoomSummary room : chunk) {
+                boolean free = useIndex
+                        ? occupancyIndex.isFree(room.getId(), startDate, endDate)
+                        : !busyRoomIds.contains(room.getId());
+                if (free) {
+                    result.add(toResponse(room));
+                    if (result.size() == wanted) {
+                        break;
+                    }
+                }
+            }
+            from = to;
+            chunkSize = Math.min(BUSY_LOOKUP_CHUNK_SIZE, chunkSize * 2);
+        }
+        return result;
+    }
+
+    /**
+     * Database path for large catalogs: submits up to {@code parallelism} chunks at a time, each
+     * resolved with its own read-only query, and merges their results in catalog order, so the
+     * outcome is the same as the sequential walk. No further waves are started once the limit
+     * is reached.
+     */
+    private List<AvailableRoomResponse> findFreeRoomsInParallel(List<RoomSummary> ordered,
+                                                                LocalDate startDate,
+                                                                LocalDate endDate,
+                                                                int wanted,
+                                                                int chunkSize) {
+        List<AvailableRoomResponse> result = new ArrayList<>();
+        int from = 0;
+        while (from < ordered.size() && result.size() < wanted) {
+            List<Future<List<RoomSummary>>> wave = new ArrayList<>();
+            for (int i = 0; i < searchExecutor.getParallelism() && from < ordered.size(); i++) {
+                List<RoomSummary> chunk = ordered.subList(from, Math.min(from + chunkSize, ordered.size()));
+                wave.add(searchExecutor.submit(() -> freeRooms(chunk, startDate, endDate)));
+                from += chunkSize;
+            }
+            try {
+                for (Future<List<RoomSummary>> future : wave) {
+                    for (RoomSummary room : searchExecutor.await(future)) {
+                        result.add(toResponse(room));
+                        if (result.size() == wanted) {
+                            return result;
+                        }
+                    }
+                }
+            } finally {
+                wave.forEach(future -> future.cancel(true));
+            }
         }
+        return result;
+    }
 
-        List<AvailableRoomResponse> result = rooms.stream()
+    private List<RoomSummary> freeRooms(List<RoomSummary> rooms, LocalDate startDate, LocalDate endDate) {
+        List<RoomSummary> candidates = rooms.stream()
                 .filter(RoomSummary::getAvailable)
-                .filter(room -> isRoomFree(room.getId(), startDate, endDate))
-                .map(this::toResponse)
-                .sorted(recommend
-                        ? Comparator.comparing(AvailableRoomResponse::getTimesBooked)
-                            .thenComparing(AvailableRoomResponse::getId)
-                        : Comparator.comparing(AvailableRoomResponse::getId))
                 .collect(Collectors.toList());
+        Set<Long> busyRoomIds = findBusyRoomIds(candidates, startDate, endDate);
+        return candidates.stream()
+                .filter(room -> !busyRoomIds.contains(room.getId()))
+                .collect(Collectors.toList());
+    }
 
-        if (limit != null && limit > 0 && result.size() > limit) {
-            return result.subList(0, limit);
+    /**
+     * {@link RoomCatalogCache} returns catalogs already in search order (id, or times booked then id),
+     * so this is normally a linear check; the sort only runs if that contract is broken.
+     */
+    private static List<RoomSummary> inSearchOrder(List<RoomSummary> rooms, boolean recommend) {
+        Comparator<RoomSummary> order = recommend
+                ? Comparator.comparing(RoomSummary::getTimesBooked).thenComparing(RoomSummary::getId)
+                : Comparator.comparing(RoomSummary::getId);
+        for (int i = 1; i < rooms.size(); i++) {
+            if (order.compare(rooms.get(i - 1), rooms.get(i)) > 0) {
+                return rooms.stream().sorted(order).collect(Collectors.toList());
+            }
         }
-        return result;
+        return rooms;
     }
 
-    private boolean isRoomFree(Long roomId, LocalDate startDate, LocalDate endDate) {
-        List<Booking> overlapping = bookingRepository.findOverlapping(
-                roomId,
-                startDate,
-                endDate,
-                Arrays.asList(Status.PENDING, Status.CONFIRMED)
-        );
-        return overlapping.isEmpty();
+    private static int saturatedDouble(int value) {
+        return value > Integer.MAX_VALUE / 2 ? Integer.MAX_VALUE : value * 2;
+    }
+
+    /**
+     * Resolves which of the given rooms have an active booking overlapping [startDate, endDate)
+     * with one query per {@link #BUSY_LOOKUP_CHUNK_SIZE} rooms instead of one query per room.
+     */
+    private Set<Long> findBusyRoomIds(List<RoomSummary> rooms, LocalDate startDate, LocalDate endDate) {
+        Set<Long> busy = new HashSet<>();
+        for (int from = 0; from < rooms.size(); from += BUSY_LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = rooms.subList(from, Math.min(from + BUSY_LOOKUP_CHUNK_SIZE, rooms.size()))
+                    .stream()
+                    .map(RoomSummary::getId)
+                    .collect(Collectors.toList());
+            busy.addAll(bookingRepository.findBusyRoomIds(chunk, startDate, endDate, ACTIVE_STATUSES));
+        }
+        return busy;
     }
 
     private AvailableRoomResponse toResponse(RoomSummary room) {
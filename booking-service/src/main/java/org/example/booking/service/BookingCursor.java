@@ -0,0 +1,36 @@
+package org.example.booking.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Keyset position in a user's booking history: the sort key of the last booking returned.
+ * Encoded as an opaque URL-safe token so clients can't depend on its layout.
+ */
+record BookingCursor(LocalDate startDate, long id) {
+
+    /**
+     * Sorts after every real booking in (start date DESC, id DESC) order.
+     */
+    static final BookingCursor START = new BookingCursor(LocalDate.of(9999, 12, 31), Long.MAX_VALUE);
+
+    String encode() {
+        String raw = startDate + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static BookingCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(':');
+            return new BookingCursor(LocalDate.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
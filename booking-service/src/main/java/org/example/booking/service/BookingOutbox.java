@@ -0,0 +1,65 @@
+package org.example.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.booking.entity.Booking;
+import org.example.booking.entity.OutboxCommand;
+import org.example.booking.repository.OutboxCommandRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Writes and settles outbox commands. Every method joins the caller's transaction, so a command
+ * is stored or settled atomically with the booking change it belongs to.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingOutbox {
+
+    private final OutboxCommandRepository outboxRepository;
+
+    /**
+     * Schedules the booking's command of the given type. A command that already exists for the booking
+     * (e.g. a release enqueued twice) is reset to pending rather than duplicated.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(OutboxCommand.Type type, Booking booking, OffsetDateTime dueAt) {
+        String commandId = OutboxCommand.commandId(type, booking.getId());
+        OutboxCommand command = outboxRepository.findByCommandId(commandId)
+                .orElseGet(() -> OutboxCommand.builder()
+                        .commandId(commandId)
+                        .type(type)
+                        .bookingId(booking.getId())
+                        .roomId(booking.getRoomId())
+                        .startDate(booking.getStartDate())
+                        .endDate(booking.getEndDate())
+                        .build());
+        command.setState(OutboxCommand.State.PENDING);
+        command.setAttempts(0);
+        command.setNextAttemptAt(dueAt);
+        command.setClaimToken(null);
+        command.setLastError(null);
+        outboxRepository.save(command);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void settle(OutboxCommand.Type type, Long bookingId, OutboxCommand.State state) {
+        outboxRepository.findByCommandId(OutboxCommand.commandId(type, bookingId))
+                .ifPresent(command -> {
+                    command.setState(state);
+                    command.setClaimToken(null);
+                });
+    }
+
+    /**
+     * Drops the command if it hasn't been delivered yet.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void discardPending(OutboxCommand.Type type, Long bookingId) {
+        outboxRepository.findByCommandId(OutboxCommand.commandId(type, bookingId))
+                .filter(command -> command.getState() == OutboxCommand.State.PENDING)
+                .ifPresent(command -> command.setState(OutboxCommand.State.DISCARDED));
+    }
+}
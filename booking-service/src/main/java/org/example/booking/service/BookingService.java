@@ -4,19 +4,32 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.booking.client.HotelClient;
 import org.example.booking.client.dto.ConfirmAvailabilityCommand;
-import org.example.booking.client.dto.ReleaseCommand;
+import org.example.booking.config.AdmissionProperties;
+import org.example.booking.config.ConfirmationProperties;
+import org.example.booking.dto.BookingPage;
 import org.example.booking.dto.BookingRequest;
 import org.example.booking.dto.BookingResponse;
 import org.example.booking.entity.Booking;
+import org.example.booking.entity.OutboxCommand;
+import org.example.booking.entity.RoomVersion;
 import org.example.booking.entity.Status;
+import org.example.booking.event.BookingChangedEvent;
+import org.example.booking.event.BookingEventBus;
 import org.example.booking.repository.BookingRepository;
-import org.springframework.data.domain.Page;
+import org.example.booking.repository.BookingView;
+import org.example.booking.repository.RoomVersionRepository;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.OffsetDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -26,31 +39,77 @@ import java.util.stream.Collectors;
 @Slf4j
 public class BookingService {
 
+    static final int MAX_PAGE_SIZE = 1000;
+
     private final BookingRepository bookingRepository;
     private final HotelClient hotelClient;
+    private final RoomOccupancyIndex occupancyIndex;
+    private final BookingEventBus eventBus;
+    private final AdmissionProperties admissionProperties;
+    private final RoomLockStripes roomLocks;
+    private final RoomVersionRepository roomVersionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingOutbox outbox;
+    private final ConfirmationProperties confirmationProperties;
 
-    @Transactional
+    /**
+     * Runs in three steps so no database connection or lock is held during the hotel-service call:
+     * a short transaction admits the booking as PENDING together with its outbox CONFIRM command,
+     * the hotel confirm runs outside any transaction, and a second short transaction moves the
+     * booking to CONFIRMED or CANCELLED. In ASYNC confirmation mode the last two steps are left
+     * to {@link OutboxDispatcher} and the PENDING booking is returned right away.
+     * <p>
+     * In {@code STRIPED_OPTIMISTIC} mode the room lock is taken before the admitting transaction
+     * starts and released after it ends, so same-room requests in this instance never queue on
+     * database locks.
+     */
     public BookingResponse createBooking(Long userId, BookingRequest request, String idempotencyKey) {
         if (request.getStartDate().isAfter(request.getEndDate())
                 || request.getStartDate().isEqual(request.getEndDate())) {
             throw new IllegalArgumentException("Invalid date range");
         }
+        Admission admission = admissionProperties.getMode() == AdmissionProperties.Mode.PESSIMISTIC
+                ? transactionTemplate.execute(status -> admit(userId, request, idempotencyKey))
+                : roomLocks.withRoomLock(request.getRoomId(),
+                        () -> transactionTemplate.execute(status -> admit(userId, request, idempotencyKey)));
+        if (!admission.created() || isAsync()) {
+            return toResponse(admission.booking());
+        }
+        return confirmPending(admission.booking());
+    }
 
+    private Admission admit(Long userId, BookingRequest request, String idempotencyKey) {
         if (idempotencyKey != null && !idempotencyKey.isBlank()) {
             Booking existing = bookingRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey)
                     .orElse(null);
             if (existing != null) {
-                return toResponse(existing);
+                return new Admission(existing, false);
             }
         }
 
-        List<Booking> overlapping = bookingRepository.findOverlappingForUpdate(
-                request.getRoomId(),
-                request.getStartDate(),
-                request.getEndDate(),
-                Arrays.asList(Status.PENDING, Status.CONFIRMED)
-        );
-        if (!overlapping.isEmpty()) {
+        if (occupancyIndex.canAnswer(request.getStartDate())
+                && !occupancyIndex.isFree(request.getRoomId(), request.getStartDate(), request.getEndDate())) {
+            throw new IllegalStateException("Room is already booked for given dates");
+        }
+
+        boolean overlapping;
+        if (admissionProperties.getMode() == AdmissionProperties.Mode.PESSIMISTIC) {
+            overlapping = !bookingRepository.findOverlappingForUpdate(
+                    request.getRoomId(),
+                    request.getStartDate(),
+                    request.getEndDate(),
+                    Arrays.asList(Status.PENDING, Status.CONFIRMED)
+            ).isEmpty();
+        } else {
+            claimRoom(request.getRoomId());
+            overlapping = bookingRepository.existsOverlapping(
+                    request.getRoomId(),
+                    request.getStartDate(),
+                    request.getEndDate(),
+                    Arrays.asList(Status.PENDING, Status.CONFIRMED)
+            );
+        }
+        if (overlapping) {
             throw new IllegalStateException("Room is already booked for given dates");
         }
 
@@ -64,36 +123,145 @@ public class BookingService {
                 .idempotencyKey(idempotencyKey)
                 .build();
 
-        Booking saved = bookingRepository.save(booking);
+        Booking saved;
+        try {
+            saved = bookingRepository.save(booking);
+        } catch (DataIntegrityViolationException ex) {
+            if (violates(ex, Booking.NO_ACTIVE_OVERLAP_CONSTRAINT)) {
+                throw new IllegalStateException("Room is already booked for given dates", ex);
+            }
+            throw ex;
+        }
+        eventBus.publish(BookingChangedEvent.of(BookingChangedEvent.Type.CREATED, saved));
+        // in SYNC mode this only fires if the request dies before recording the hotel's answer
+        OffsetDateTime confirmDueAt = isAsync()
+                ? OffsetDateTime.now()
+                : OffsetDateTime.now().plus(confirmationProperties.getPendingTimeout());
+        outbox.enqueue(OutboxCommand.Type.CONFIRM, saved, confirmDueAt);
+        return new Admission(saved, true);
+    }
+
+    private boolean isAsync() {
+        return confirmationProperties.getMode() == ConfirmationProperties.Mode.ASYNC;
+    }
 
+    /**
+     * SYNC confirmation: calls hotel-service from the request thread and records the outcome.
+     */
+    private BookingResponse confirmPending(Booking pending) {
         try {
             ConfirmAvailabilityCommand command = new ConfirmAvailabilityCommand(
-                    String.valueOf(saved.getId()),
-                    saved.getStartDate(),
-                    saved.getEndDate()
+                    String.valueOf(pending.getId()),
+                    pending.getStartDate(),
+                    pending.getEndDate()
             );
-            hotelClient.confirmAvailability(saved.getRoomId(), command);
-            saved.setStatus(Status.CONFIRMED);
-            saved = bookingRepository.save(saved);
+            hotelClient.confirmAvailability(pending.getRoomId(), command);
         } catch (RuntimeException ex) {
-            log.warn("Hotel confirm-availability failed for booking {}: {}", saved.getId(), ex.getMessage());
-            saved.setStatus(Status.CANCELLED);
-            bookingRepository.save(saved);
+            log.warn("Hotel confirm-availability failed for booking {}: {}", pending.getId(), ex.getMessage());
+            onConfirmFailed(pending.getId());
             throw new IllegalStateException("Failed to confirm room availability", ex);
         }
 
-        return toResponse(saved);
+        Booking completed = onConfirmed(pending.getId());
+        if (completed.getStatus() != Status.CONFIRMED) {
+            throw new IllegalStateException("Booking was cancelled while confirming room availability");
+        }
+        return toResponse(completed);
+    }
+
+    /**
+     * Records that hotel-service granted the hold. If the booking was cancelled while the call was
+     * in flight, the fresh hold is released through the outbox instead.
+     */
+    Booking onConfirmed(Long bookingId) {
+        return transactionTemplate.execute(status -> {
+            outbox.settle(OutboxCommand.Type.CONFIRM, bookingId, OutboxCommand.State.DELIVERED);
+            Booking booking = bookingRepository.findByIdForUpdate(bookingId)
+                    .orElseThrow(() -> new RuntimeException("Booking not found"));
+            if (booking.getStatus() == Status.PENDING) {
+                booking.setStatus(Status.CONFIRMED);
+                booking = bookingRepository.save(booking);
+                eventBus.publish(BookingChangedEvent.of(BookingChangedEvent.Type.CONFIRMED, booking));
+            } else if (booking.getStatus() == Status.CANCELLED) {
+                outbox.enqueue(OutboxCommand.Type.RELEASE, booking, OffsetDateTime.now());
+            }
+            return booking;
+        });
+    }
+
+    /**
+     * Compensation for a confirm that failed for good: the booking is cancelled and, since a failed
+     * or timed-out call may still have left a hold behind, a release is scheduled.
+     */
+    Booking onConfirmFailed(Long bookingId) {
+        return transactionTemplate.execute(status -> {
+            outbox.settle(OutboxCommand.Type.CONFIRM, bookingId, OutboxCommand.State.FAILED);
+            Booking booking = bookingRepository.findByIdForUpdate(bookingId)
+                    .orElseThrow(() -> new RuntimeException("Booking not found"));
+            if (booking.getStatus() == Status.PENDING) {
+                booking.setStatus(Status.CANCELLED);
+                booking = bookingRepository.save(booking);
+                eventBus.publish(BookingChangedEvent.of(BookingChangedEvent.Type.CANCELLED, booking));
+            }
+            if (booking.getStatus() == Status.CANCELLED) {
+                outbox.enqueue(OutboxCommand.Type.RELEASE, booking, OffsetDateTime.now());
+            }
+            return booking;
+        });
+    }
+
+    /**
+     * Bumps (or creates) the room's version row and flushes right away, so a concurrent admission
+     * for the same room from another instance fails here instead of both committing. Once this
+     * succeeds the row stays write-locked until commit, so the overlap check that follows reads
+     * a state no other admission can change.
+     */
+    private void claimRoom(Long roomId) {
+        RoomVersion roomVersion = roomVersionRepository.findById(roomId)
+                .orElseGet(() -> new RoomVersion(roomId));
+        roomVersion.setUpdatedAt(OffsetDateTime.now());
+        try {
+            roomVersionRepository.saveAndFlush(roomVersion);
+        } catch (ConcurrencyFailureException | DataIntegrityViolationException ex) {
+            throw new IllegalStateException("Room is being booked by another request, retry later", ex);
+        }
     }
 
+    /**
+     * Offset-paged listing, kept for existing clients; {@link #getUserBookingHistory} stays fast on deep pages.
+     */
     @Transactional(readOnly = true)
     public List<BookingResponse> getUserBookings(Long userId, int page, int size) {
         PageRequest pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "startDate"));
-        Page<Booking> bookingsPage = bookingRepository.findByUserId(userId, pageable);
-        return bookingsPage.stream()
-                .map(this::toResponse)
+        return bookingRepository.findViewsByUserId(userId, pageable).stream()
+                .map(BookingService::toResponse)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * The user's bookings, latest stay first (start date, then id, descending), one page after {@code cursor}.
+     */
+    @Transactional(readOnly = true)
+    public BookingPage getUserBookingHistory(Long userId, int limit, String cursor) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        int pageSize = Math.min(limit, MAX_PAGE_SIZE);
+        BookingCursor after = BookingCursor.decode(cursor);
+        // one extra row tells whether there is a next page
+        List<BookingView> rows = bookingRepository.findHistoryPage(
+                userId, after.startDate(), after.id(), Limit.of(pageSize + 1));
+        if (rows.size() <= pageSize) {
+            return new BookingPage(rows.stream().map(BookingService::toResponse).collect(Collectors.toList()), null);
+        }
+        List<BookingView> page = rows.subList(0, pageSize);
+        BookingView last = page.get(page.size() - 1);
+        return new BookingPage(
+                page.stream().map(BookingService::toResponse).collect(Collectors.toList()),
+                new BookingCursor(last.startDate(), last.id()).encode()
+        );
+    }
+
     @Transactional(readOnly = true)
     public BookingResponse getBooking(Long userId, Long bookingId) {
         Booking booking = bookingRepository.findById(bookingId)
@@ -111,15 +279,16 @@ public class BookingService {
         if (!booking.getUserId().equals(userId)) {
             throw new AccessDeniedException("Access denied");
         }
+        if (booking.getStatus() == Status.CANCELLED) {
+            return;
+        }
         booking.setStatus(Status.CANCELLED);
         bookingRepository.save(booking);
+        eventBus.publish(BookingChangedEvent.of(BookingChangedEvent.Type.CANCELLED, booking));
 
-        try {
-            ReleaseCommand command = new ReleaseCommand(String.valueOf(bookingId));
-            hotelClient.release(booking.getRoomId(), command);
-        } catch (RuntimeException ex) {
-            log.warn("Hotel release failed for booking {}: {}", bookingId, ex.getMessage());
-        }
+        // the hold is released by the outbox dispatcher after commit, with retries
+        outbox.discardPending(OutboxCommand.Type.CONFIRM, bookingId);
+        outbox.enqueue(OutboxCommand.Type.RELEASE, booking, OffsetDateTime.now());
     }
 
     private BookingResponse toResponse(Booking booking) {
@@ -132,4 +301,30 @@ public class BookingService {
                 .status(booking.getStatus().name())
                 .build();
     }
+
+    /**
+     * Whether {@code ex} was caused by a violation of the named database constraint.
+     */
+    private static boolean violates(DataIntegrityViolationException ex, String constraintName) {
+        for (Throwable cause = ex.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return constraintName.equals(violation.getConstraintName());
+            }
+        }
+        return false;
+    }
+
+    private static BookingResponse toResponse(BookingView booking) {
+        return BookingResponse.builder()
+                .id(booking.id())
+                .hotelId(booking.hotelId())
+                .roomId(booking.roomId())
+                .startDate(booking.startDate())
+                .endDate(booking.endDate())
+                .status(booking.status().name())
+                .build();
+    }
+
+    private record Admission(Booking booking, boolean created) {
+    }
 }
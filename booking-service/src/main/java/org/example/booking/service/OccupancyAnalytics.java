@@ -0,0 +1,235 @@
+package org.example.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.booking.config.AnalyticsProperties;
+import org.example.booking.dto.OccupancyResponse;
+import org.example.booking.entity.Status;
+import org.example.booking.event.BookingChangedEvent;
+import org.example.booking.event.BookingEventSubscriber;
+import org.example.booking.repository.BookingRepository;
+import org.example.booking.repository.HotelBookingInterval;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-day counts of occupied rooms (active PENDING/CONFIRMED bookings), per hotel and across all hotels.
+ * <p>
+ * Each hotel has an {@link OccupancyCurve} over a window of {@code past-days} before and
+ * {@code future-days} from the day it was built, kept up to date from {@link BookingChangedEvent}s.
+ * The window is rebuilt from the database every {@code booking.analytics.occupancy.rebuild-interval},
+ * which also moves it along with the calendar. Ranges outside the window, and every query while the
+ * curves are not ready, are computed from the bookings of the range with the same sweep.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OccupancyAnalytics implements BookingEventSubscriber {
+
+    static final int MAX_RANGE_DAYS = 1100;
+
+    private static final List<Status> ACTIVE_STATUSES = Arrays.asList(Status.PENDING, Status.CONFIRMED);
+
+    private final BookingRepository bookingRepository;
+    private final AnalyticsProperties properties;
+
+    /**
+     * Incremental updates hold the read lock (each curve synchronizes itself),
+     * swapping in freshly loaded curves holds the write lock.
+     */
+    private final ReentrantReadWriteLock structureLock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    /**
+     * Changes to replay onto the curves being loaded, if a rebuild is running. Set and cleared under
+     * the write lock, so every update either finished before the load started or is recorded here.
+     */
+    private RebuildDeltas rebuildDeltas;
+
+    private volatile Curves curves;
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Occupied rooms on each day of {@code [from, to)}, for one hotel or, when {@code hotelId} is null,
+     * for all hotels.
+     */
+    public OccupancyResponse occupancy(Long hotelId, LocalDate from, LocalDate to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("Invalid date range");
+        }
+        if (from.plusDays(MAX_RANGE_DAYS).isBefore(to)) {
+            throw new IllegalArgumentException("Date range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+        int fromDay = (int) from.toEpochDay();
+        int toDay = (int) to.toEpochDay();
+        long[] counts = countsFromIndex(hotelId, fromDay, toDay);
+        if (counts == null) {
+            counts = countsFromDatabase(hotelId, from, to);
+        }
+        List<OccupancyResponse.DayOccupancy> days = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            days.add(OccupancyResponse.DayOccupancy.builder()
+                    .date(from.plusDays(i))
+                    .occupiedRooms(counts[i])
+                    .build());
+        }
+        return OccupancyResponse.builder()
+                .hotelId(hotelId)
+                .from(from)
+                .to(to)
+                .days(days)
+                .build();
+    }
+
+    private long[] countsFromIndex(Long hotelId, int fromDay, int toDay) {
+        Curves current = curves;
+        if (!ready || current == null || !current.total.covers(fromDay, toDay)) {
+            return null;
+        }
+        OccupancyCurve curve = hotelId == null ? current.total : current.byHotel.get(hotelId);
+        return curve == null ? new long[toDay - fromDay] : curve.occupancy(fromDay, toDay);
+    }
+
+    private long[] countsFromDatabase(Long hotelId, LocalDate from, LocalDate to) {
+        int fromDay = (int) from.toEpochDay();
+        int toDay = (int) to.toEpochDay();
+        OccupancyCurve curve = new OccupancyCurve(fromDay, toDay - fromDay);
+        for (HotelBookingInterval interval : bookingRepository.findActiveHotelIntervals(hotelId, from, to, ACTIVE_STATUSES)) {
+            curve.add((int) interval.startDate().toEpochDay(), (int) interval.endDate().toEpochDay(), 1);
+        }
+        return curve.occupancy(fromDay, toDay);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (properties.getOccupancy().isEnabled()) {
+            rebuild();
+        }
+    }
+
+    @Override
+    public void onBookingChanged(BookingChangedEvent event) {
+        switch (event.getType()) {
+            case CREATED, CANCELLED -> apply(event);
+            default -> {
+                // PENDING -> CONFIRMED keeps the booking active, nothing to update
+            }
+        }
+    }
+
+    @Override
+    public void onEventsMissed() {
+        // queries go to the database until the curves are reloaded
+        ready = false;
+        rebuild();
+    }
+
+    private void apply(BookingChangedEvent event) {
+        structureLock.readLock().lock();
+        try {
+            if (rebuildDeltas != null) {
+                rebuildDeltas.record(event);
+            }
+            Curves current = curves;
+            if (current != null) {
+                current.add(event);
+            }
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reloads the curves for a window around today. Bookings that change while the window is being
+     * read are recorded and reconciled with the load before it is swapped in, so a rebuild succeeds
+     * under any write load.
+     */
+    @Scheduled(fixedDelayString = "${booking.analytics.occupancy.rebuild-interval:PT1H}",
+            initialDelayString = "${booking.analytics.occupancy.rebuild-interval:PT1H}")
+    public void rebuild() {
+        AnalyticsProperties.Occupancy settings = properties.getOccupancy();
+        if (!settings.isEnabled()) {
+            return;
+        }
+        rebuildLock.lock();
+        try {
+            RebuildDeltas deltas = new RebuildDeltas();
+            setRebuildDeltas(deltas);
+            try {
+                LocalDate first = LocalDate.now().minusDays(settings.getPastDays());
+                LocalDate last = LocalDate.now().plusDays(settings.getFutureDays());
+                Curves loaded = new Curves((int) first.toEpochDay(), (int) (last.toEpochDay() - first.toEpochDay()));
+                Set<Long> loadedBookingIds = new HashSet<>();
+                for (HotelBookingInterval interval : bookingRepository.findActiveHotelIntervals(null, first, last, ACTIVE_STATUSES)) {
+                    loaded.add(interval.hotelId(),
+                            (int) interval.startDate().toEpochDay(), (int) interval.endDate().toEpochDay(), 1);
+                    loadedBookingIds.add(interval.bookingId());
+                }
+
+                structureLock.writeLock().lock();
+                try {
+                    deltas.replay(loadedBookingIds, loaded::add);
+                    curves = loaded;
+                    ready = true;
+                    rebuildDeltas = null;
+                } finally {
+                    structureLock.writeLock().unlock();
+                }
+                log.debug("Occupancy curves built for {} hotels from {} to {}", loaded.byHotel.size(), first, last);
+            } finally {
+                setRebuildDeltas(null);
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void setRebuildDeltas(RebuildDeltas deltas) {
+        structureLock.writeLock().lock();
+        try {
+            rebuildDeltas = deltas;
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    private static final class Curves {
+        final int firstDay;
+        final int days;
+        final OccupancyCurve total;
+        final Map<Long, OccupancyCurve> byHotel = new ConcurrentHashMap<>();
+
+        Curves(int firstDay, int days) {
+            this.firstDay = firstDay;
+            this.days = days;
+            this.total = new OccupancyCurve(firstDay, days);
+        }
+
+        void add(BookingChangedEvent event) {
+            add(event.getHotelId(), (int) event.getStartDate().toEpochDay(), (int) event.getEndDate().toEpochDay(),
+                    event.getType() == BookingChangedEvent.Type.CANCELLED ? -1 : 1);
+        }
+
+        void add(Long hotelId, int startDay, int endDay, long count) {
+            total.add(startDay, endDay, count);
+            byHotel.computeIfAbsent(hotelId, id -> new OccupancyCurve(firstDay, days)).add(startDay, endDay, count);
+        }
+    }
+}
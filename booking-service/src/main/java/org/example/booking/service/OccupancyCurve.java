@@ -0,0 +1,94 @@
+package org.example.booking.service;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Number of bookings active on each day of a fixed window of epoch days.
+ * <p>
+ * A booking {@code [start, end)} is stored as +1 at its start day and -1 at its end day (a difference
+ * array), with a Fenwick tree over the same deltas. Adding or removing a booking is O(log n); the count
+ * on a day is the prefix sum up to it, so a curve of k days is one O(log n) prefix sum followed by a
+ * sweep over k deltas. Bookings are clipped to the window. Safe for concurrent use; guarded by a lock
+ * rather than the monitor, so threads waiting on a busy curve don't pin virtual-thread carriers.
+ */
+final class OccupancyCurve {
+
+    private final int firstDay;
+    private final long[] deltas;
+    private final long[] tree;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    OccupancyCurve(int firstDay, int days) {
+        if (days <= 0) {
+            throw new IllegalArgumentException("Window must cover at least one day");
+        }
+        this.firstDay = firstDay;
+        this.deltas = new long[days];
+        this.tree = new long[days + 1];
+    }
+
+    /**
+     * Whether {@code [fromDay, toDay)} lies inside the window.
+     */
+    boolean covers(int fromDay, int toDay) {
+        return fromDay >= firstDay && toDay <= firstDay + deltas.length;
+    }
+
+    void add(int startDay, int endDay, long count) {
+        int start = Math.max(startDay, firstDay) - firstDay;
+        int end = Math.min(endDay, firstDay + deltas.length) - firstDay;
+        if (start >= end) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            update(start, count);
+            if (end < deltas.length) {
+                update(end, -count);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Active bookings on each day of {@code [fromDay, toDay)}, which must be {@link #covers covered}.
+     */
+    long[] occupancy(int fromDay, int toDay) {
+        long[] result = new long[toDay - fromDay];
+        if (result.length == 0) {
+            return result;
+        }
+        int from = fromDay - firstDay;
+        lock.readLock().lock();
+        try {
+            long value = prefixSum(from);
+            result[0] = value;
+            for (int i = 1; i < result.length; i++) {
+                value += deltas[from + i];
+                result[i] = value;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    private void update(int index, long delta) {
+        deltas[index] += delta;
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Sum of {@code deltas[0..index]}.
+     */
+    private long prefixSum(int index) {
+        long sum = 0;
+        for (int i = index + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+}
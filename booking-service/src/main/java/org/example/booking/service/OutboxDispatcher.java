@@ -0,0 +1,229 @@
+package org.example.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.booking.client.HotelClient;
+import org.example.booking.client.dto.RoomCommandResult;
+import org.example.booking.client.dto.RoomConfirmCommand;
+import org.example.booking.client.dto.RoomReleaseCommand;
+import org.example.booking.config.OutboxProperties;
+import org.example.booking.entity.OutboxCommand;
+import org.example.booking.repository.OutboxCommandRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers outbox commands to hotel-service. Each round claims a batch of due commands in one
+ * short transaction, sends them with one batch call per command type with no transaction open,
+ * and records every outcome in its own short transaction. Failed deliveries are retried with
+ * exponential backoff; a command that keeps failing is given up after {@code max-attempts}, and
+ * one hotel-service rejects (a failed result, or a 4xx for the whole call) is given up right away.
+ * <p>
+ * Settled commands (delivered, failed or discarded) are kept for {@code retention} to look into, then
+ * deleted by a periodic sweep in batches of short transactions.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxDispatcher {
+
+    /**
+     * Largest batch hotel-service accepts in one confirm/release call.
+     */
+    static final int MAX_HOTEL_BATCH = 500;
+
+    /**
+     * Max settled commands deleted per retention sweep transaction.
+     */
+    static final int PURGE_BATCH = 500;
+
+    private static final Set<OutboxCommand.State> SETTLED_STATES = EnumSet.of(
+            OutboxCommand.State.DELIVERED, OutboxCommand.State.FAILED, OutboxCommand.State.DISCARDED);
+
+    private final OutboxCommandRepository outboxRepository;
+    private final HotelClient hotelClient;
+    private final BookingService bookingService;
+    private final OutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(fixedDelayString = "${booking.outbox.poll-interval:PT1S}")
+    public void poll() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            while (dispatchDue() == properties.getBatchSize()) {
+                // full batch, more may be waiting
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Outbox dispatch round failed: {}", ex.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booking.outbox.cleanup-interval:PT1H}")
+    public void purgeSettled() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        OffsetDateTime settledBefore = OffsetDateTime.now().minus(properties.getRetention());
+        try {
+            long purged = 0;
+            int deleted;
+            do {
+                deleted = purgeSettled(settledBefore);
+                purged += deleted;
+            } while (deleted == PURGE_BATCH);
+            if (purged > 0) {
+                log.info("Purged {} settled outbox commands older than {}", purged, properties.getRetention());
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Outbox retention sweep failed: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Deletes one batch of commands settled before {@code settledBefore} and returns how many were found.
+     */
+    int purgeSettled(OffsetDateTime settledBefore) {
+        return transactionTemplate.execute(status -> {
+            List<Long> ids = outboxRepository.findSettledIds(SETTLED_STATES, settledBefore, Limit.of(PURGE_BATCH));
+            if (!ids.isEmpty()) {
+                outboxRepository.deleteSettled(ids, SETTLED_STATES, settledBefore);
+            }
+            return ids.size();
+        });
+    }
+
+    /**
+     * Runs one round and returns the number of commands claimed.
+     */
+    int dispatchDue() {
+        List<OutboxCommand> batch = claimBatch();
+        Map<OutboxCommand.Type, List<OutboxCommand>> byType = batch.stream()
+                .collect(Collectors.groupingBy(OutboxCommand::getType,
+                        () -> new EnumMap<>(OutboxCommand.Type.class), Collectors.toList()));
+        byType.forEach((type, commands) -> {
+            for (int from = 0; from < commands.size(); from += MAX_HOTEL_BATCH) {
+                deliver(type, commands.subList(from, Math.min(from + MAX_HOTEL_BATCH, commands.size())));
+            }
+        });
+        return batch.size();
+    }
+
+    private List<OutboxCommand> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            OffsetDateTime now = OffsetDateTime.now();
+            List<Long> dueIds = outboxRepository.findDueIds(
+                    OutboxCommand.State.PENDING, now, Limit.of(properties.getBatchSize()));
+            if (dueIds.isEmpty()) {
+                return List.of();
+            }
+            String token = UUID.randomUUID().toString();
+            outboxRepository.claim(dueIds, token, OutboxCommand.State.PENDING, now, now.plus(properties.getLease()));
+            return outboxRepository.findByClaimToken(token);
+        });
+    }
+
+    private void deliver(OutboxCommand.Type type, List<OutboxCommand> commands) {
+        List<RoomCommandResult> results;
+        try {
+            results = send(type, commands);
+        } catch (RuntimeException ex) {
+            boolean rejected = ex instanceof HttpClientErrorException;
+            commands.forEach(command -> recordFailure(command, ex.getMessage(), rejected));
+            return;
+        }
+        for (int i = 0; i < commands.size(); i++) {
+            OutboxCommand command = commands.get(i);
+            RoomCommandResult result = i < results.size() ? results.get(i) : null;
+            if (result == null) {
+                recordFailure(command, "No result returned by hotel-service", false);
+            } else if (!result.isSuccess()) {
+                recordFailure(command, result.getError(), true);
+            } else if (type == OutboxCommand.Type.CONFIRM) {
+                bookingService.onConfirmed(command.getBookingId());
+            } else {
+                settle(command, OutboxCommand.State.DELIVERED, null);
+            }
+        }
+    }
+
+    private List<RoomCommandResult> send(OutboxCommand.Type type, List<OutboxCommand> commands) {
+        return switch (type) {
+            case CONFIRM -> hotelClient.confirmAvailabilityBatch(commands.stream()
+                    .map(c -> new RoomConfirmCommand(c.getRoomId(), String.valueOf(c.getBookingId()),
+                            c.getStartDate(), c.getEndDate()))
+                    .toList());
+            case RELEASE -> hotelClient.releaseBatch(commands.stream()
+                    .map(c -> new RoomReleaseCommand(c.getRoomId(), String.valueOf(c.getBookingId())))
+                    .toList());
+        };
+    }
+
+    private void recordFailure(OutboxCommand command, String error, boolean rejected) {
+        int attempts = command.getAttempts() + 1;
+        if (!rejected && attempts < properties.getMaxAttempts()) {
+            log.debug("Outbox command {} failed (attempt {}): {}", command.getCommandId(), attempts, error);
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.findById(command.getId())
+                    .filter(current -> token(command).equals(current.getClaimToken()))
+                    .ifPresent(current -> {
+                        current.setAttempts(attempts);
+                        current.setNextAttemptAt(OffsetDateTime.now().plus(backoff(attempts)));
+                        current.setClaimToken(null);
+                        current.setLastError(truncate(error));
+                    }));
+            return;
+        }
+        log.error("Outbox command {} given up after {} attempts: {}", command.getCommandId(), attempts, error);
+        if (command.getType() == OutboxCommand.Type.CONFIRM) {
+            bookingService.onConfirmFailed(command.getBookingId());
+        } else {
+            settle(command, OutboxCommand.State.FAILED, error);
+        }
+    }
+
+    private void settle(OutboxCommand command, OutboxCommand.State state, String error) {
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.findById(command.getId())
+                .filter(current -> token(command).equals(current.getClaimToken()))
+                .ifPresent(current -> {
+                    current.setState(state);
+                    current.setClaimToken(null);
+                    current.setLastError(truncate(error));
+                }));
+    }
+
+    /**
+     * initialBackoff * 2^(attempts - 1), capped at maxBackoff, with up to 20% jitter so commands
+     * that failed together don't retry together.
+     */
+    Duration backoff(int attempts) {
+        Duration base = properties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        if (base.compareTo(properties.getMaxBackoff()) > 0) {
+            base = properties.getMaxBackoff();
+        }
+        long jitterMillis = ThreadLocalRandom.current().nextLong(base.toMillis() / 5 + 1);
+        return base.plusMillis(jitterMillis);
+    }
+
+    private static String token(OutboxCommand command) {
+        return command.getClaimToken() == null ? "" : command.getClaimToken();
+    }
+
+    private static String truncate(String message) {
+        return message == null || message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+}
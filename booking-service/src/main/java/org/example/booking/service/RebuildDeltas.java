@@ -0,0 +1,38 @@
+package org.example.booking.service;
+
+import org.example.booking.event.BookingChangedEvent;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Booking changes that arrive while derived state is being reloaded from the database, kept as the last
+ * change per booking. The load may or may not already reflect each of them, so instead of replaying the
+ * changes blindly they are reconciled with the ids of the bookings the load found active: a booking
+ * created since is added if the load missed it, one cancelled since is removed if the load still had it.
+ * Events of one booking arrive in order, so the last one is its current state.
+ */
+final class RebuildDeltas {
+
+    private final Map<Long, BookingChangedEvent> latest = new ConcurrentHashMap<>();
+
+    void record(BookingChangedEvent event) {
+        if (event.getType() != BookingChangedEvent.Type.CONFIRMED) {
+            latest.put(event.getBookingId(), event);
+        }
+    }
+
+    /**
+     * Hands {@code apply} every recorded change the load doesn't reflect yet.
+     */
+    void replay(Set<Long> loadedBookingIds, Consumer<BookingChangedEvent> apply) {
+        for (BookingChangedEvent event : latest.values()) {
+            boolean loaded = loadedBookingIds.contains(event.getBookingId());
+            if (event.getType() == BookingChangedEvent.Type.CREATED ? !loaded : loaded) {
+                apply.accept(event);
+            }
+        }
+    }
+}
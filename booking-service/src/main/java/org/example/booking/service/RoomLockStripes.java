@@ -0,0 +1,57 @@
+package org.example.booking.service;
+
+import org.example.booking.config.AdmissionProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Fixed set of locks, one per stripe of room ids, so bookings for the same room run one at a time
+ * in this instance without keeping a lock object per room. Waiting is bounded: a request that can't
+ * get its stripe within the configured timeout fails with {@link IllegalStateException} (409).
+ */
+@Component
+public class RoomLockStripes {
+
+    private final ReentrantLock[] locks;
+    private final long timeoutNanos;
+
+    public RoomLockStripes(AdmissionProperties properties) {
+        int stripes = Integer.highestOneBit(Math.max(1, properties.getStripes() - 1)) << 1;
+        this.locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.timeoutNanos = properties.getLockTimeout().toNanos();
+    }
+
+    public <T> T withRoomLock(Long roomId, Supplier<T> action) {
+        ReentrantLock lock = locks[stripe(roomId)];
+        boolean acquired;
+        try {
+            acquired = lock.tryLock(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for room " + roomId, ex);
+        }
+        if (!acquired) {
+            throw new IllegalStateException("Room is being booked by another request, retry later");
+        }
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int stripeCount() {
+        return locks.length;
+    }
+
+    int stripe(Long roomId) {
+        int h = Long.hashCode(roomId);
+        return (h ^ (h >>> 16)) & (locks.length - 1);
+    }
+}
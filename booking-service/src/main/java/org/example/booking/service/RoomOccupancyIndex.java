@@ -0,0 +1,379 @@
+package org.example.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.booking.config.AvailabilityProperties;
+import org.example.booking.entity.Status;
+import org.example.booking.event.BookingChangedEvent;
+import org.example.booking.event.BookingEventSubscriber;
+import org.example.booking.repository.BookingInterval;
+import org.example.booking.repository.BookingRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory per-room index of active (PENDING/CONFIRMED) booking date ranges.
+ * <p>
+ * Each room keeps its ranges as sorted epoch-day arrays plus a running maximum of end days,
+ * so "is the room free for [start, end)" is one binary search. The index only covers bookings
+ * that end after the day it was built ({@link #horizonDay}); older queries, and every query
+ * while the index is not {@link #isReady() ready}, must fall back to the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomOccupancyIndex implements BookingEventSubscriber {
+
+    private static final List<Status> ACTIVE_STATUSES = Arrays.asList(Status.PENDING, Status.CONFIRMED);
+
+    private final BookingRepository bookingRepository;
+    private final AvailabilityProperties properties;
+
+    /**
+     * Incremental updates hold the read lock (they only touch one map entry each),
+     * swapping in a freshly loaded snapshot holds the write lock.
+     */
+    private final ReentrantReadWriteLock structureLock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final AtomicLong modificationCount = new AtomicLong();
+
+    /**
+     * Changes to replay onto the snapshot being loaded, if a rebuild is running. Set and cleared under
+     * the write lock, so every update either finished before the load started or is recorded here.
+     */
+    private RebuildDeltas rebuildDeltas;
+
+    private volatile Map<Long, RoomIntervals> rooms = new ConcurrentHashMap<>();
+    private volatile int horizonDay;
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Whether this index can answer a query starting at the given date.
+     */
+    public boolean canAnswer(LocalDate startDate) {
+        return ready && startDate.toEpochDay() >= horizonDay;
+    }
+
+    /**
+     * Callers must check {@link #canAnswer(LocalDate)} first.
+     */
+    public boolean isFree(Long roomId, LocalDate startDate, LocalDate endDate) {
+        RoomIntervals intervals = rooms.get(roomId);
+        return intervals == null
+                || !intervals.overlaps((int) startDate.toEpochDay(), (int) endDate.toEpochDay());
+    }
+
+    public void markStale() {
+        if (ready) {
+            log.warn("Room occupancy index marked stale, availability checks fall back to the database");
+        }
+        ready = false;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (properties.getIndex().isEnabled()) {
+            rebuild();
+        }
+    }
+
+    @Override
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (event.getType() == BookingChangedEvent.Type.CONFIRMED) {
+            // PENDING -> CONFIRMED keeps the range active, nothing to update
+            return;
+        }
+        structureLock.readLock().lock();
+        try {
+            modificationCount.incrementAndGet();
+            if (rebuildDeltas != null) {
+                rebuildDeltas.record(event);
+            }
+            apply(rooms, horizonDay, event);
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onEventsMissed() {
+        if (properties.getIndex().isEnabled()) {
+            markStale();
+            rebuild();
+        }
+    }
+
+    private static void apply(Map<Long, RoomIntervals> rooms, int horizonDay, BookingChangedEvent event) {
+        int start = (int) event.getStartDate().toEpochDay();
+        int end = (int) event.getEndDate().toEpochDay();
+        if (event.getType() == BookingChangedEvent.Type.CREATED) {
+            if (end > horizonDay) {
+                rooms.compute(event.getRoomId(), (id, current) ->
+                        (current == null ? RoomIntervals.EMPTY : current).with(start, end));
+            }
+        } else {
+            rooms.computeIfPresent(event.getRoomId(), (id, current) -> {
+                RoomIntervals updated = current.without(start, end);
+                return updated.isEmpty() ? null : updated;
+            });
+        }
+    }
+
+    /**
+     * Reloads the index from the database. Updates that arrive while the snapshot is being read are
+     * recorded and reconciled with it before it is swapped in, so a rebuild succeeds under any write load.
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            RebuildDeltas deltas = new RebuildDeltas();
+            setRebuildDeltas(deltas);
+            try {
+                int newHorizon = (int) LocalDate.now().toEpochDay();
+                List<BookingInterval> intervals = bookingRepository
+                        .findActiveIntervalsEndingAfter(LocalDate.ofEpochDay(newHorizon), ACTIVE_STATUSES);
+                Map<Long, RoomIntervals> snapshot = new ConcurrentHashMap<>(byRoom(intervals));
+                Set<Long> loadedBookingIds = intervals.stream()
+                        .map(BookingInterval::bookingId)
+                        .collect(Collectors.toSet());
+
+                structureLock.writeLock().lock();
+                try {
+                    deltas.replay(loadedBookingIds, missed -> apply(snapshot, newHorizon, missed));
+                    rooms = snapshot;
+                    horizonDay = newHorizon;
+                    ready = true;
+                    rebuildDeltas = null;
+                } finally {
+                    structureLock.writeLock().unlock();
+                }
+                log.info("Room occupancy index built: {} rooms with active bookings", snapshot.size());
+            } finally {
+                setRebuildDeltas(null);
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void setRebuildDeltas(RebuildDeltas deltas) {
+        structureLock.writeLock().lock();
+        try {
+            rebuildDeltas = deltas;
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Compares the index with the database and rebuilds it on mismatch. The comparison is skipped
+     * if bookings changed while the snapshot was being read, since the two can't be compared then.
+     */
+    @Scheduled(fixedDelayString = "${booking.availability.index.verify-interval:PT5M}",
+            initialDelayString = "${booking.availability.index.verify-interval:PT5M}")
+    public void verify() {
+        if (!properties.getIndex().isEnabled()) {
+            return;
+        }
+        if (!ready) {
+            rebuild();
+            return;
+        }
+        long seenModifications = modificationCount.get();
+        int currentHorizon = horizonDay;
+        Map<Long, RoomIntervals> snapshot = load(currentHorizon);
+        if (seenModifications != modificationCount.get()) {
+            return;
+        }
+        if (!snapshot.equals(pruned(rooms, currentHorizon))) {
+            log.warn("Room occupancy index diverged from the database, rebuilding");
+            markStale();
+            rebuild();
+        } else if (currentHorizon < LocalDate.now().toEpochDay()) {
+            rebuild();
+        }
+    }
+
+    private Map<Long, RoomIntervals> load(int fromDay) {
+        return byRoom(bookingRepository.findActiveIntervalsEndingAfter(LocalDate.ofEpochDay(fromDay), ACTIVE_STATUSES));
+    }
+
+    private static Map<Long, RoomIntervals> byRoom(List<BookingInterval> loaded) {
+        Map<Long, List<BookingInterval>> byRoom = loaded.stream()
+                .collect(Collectors.groupingBy(BookingInterval::roomId));
+        Map<Long, RoomIntervals> snapshot = new HashMap<>();
+        byRoom.forEach((roomId, intervals) -> snapshot.put(roomId, RoomIntervals.of(intervals)));
+        return snapshot;
+    }
+
+    private static Map<Long, RoomIntervals> pruned(Map<Long, RoomIntervals> rooms, int fromDay) {
+        Map<Long, RoomIntervals> result = new HashMap<>();
+        rooms.forEach((roomId, intervals) -> {
+            RoomIntervals kept = intervals.endingAfter(fromDay);
+            if (!kept.isEmpty()) {
+                result.put(roomId, kept);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Immutable date ranges of one room sorted by (start, end). {@code maxEnds[i]} is the largest
+     * end among ranges {@code 0..i}, which keeps the overlap check correct even if the database
+     * contains overlapping active bookings for a room.
+     */
+    static final class RoomIntervals {
+
+        static final RoomIntervals EMPTY = new RoomIntervals(new int[0], new int[0]);
+
+        private final int[] starts;
+        private final int[] ends;
+        private final int[] maxEnds;
+
+        private RoomIntervals(int[] starts, int[] ends) {
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnds = new int[ends.length];
+            int max = Integer.MIN_VALUE;
+            for (int i = 0; i < ends.length; i++) {
+                max = Math.max(max, ends[i]);
+                maxEnds[i] = max;
+            }
+        }
+
+        boolean isEmpty() {
+            return starts.length == 0;
+        }
+
+        boolean overlaps(int start, int end) {
+            int last = lastStartingBefore(end);
+            return last >= 0 && maxEnds[last] > start;
+        }
+
+        RoomIntervals with(int start, int end) {
+            int pos = insertionPoint(start, end);
+            int[] newStarts = new int[starts.length + 1];
+            int[] newEnds = new int[ends.length + 1];
+            System.arraycopy(starts, 0, newStarts, 0, pos);
+            System.arraycopy(ends, 0, newEnds, 0, pos);
+            newStarts[pos] = start;
+            newEnds[pos] = end;
+            System.arraycopy(starts, pos, newStarts, pos + 1, starts.length - pos);
+            System.arraycopy(ends, pos, newEnds, pos + 1, ends.length - pos);
+            return new RoomIntervals(newStarts, newEnds);
+        }
+
+        RoomIntervals without(int start, int end) {
+            int pos = insertionPoint(start, end);
+            if (pos >= starts.length || starts[pos] != start || ends[pos] != end) {
+                return this;
+            }
+            int[] newStarts = new int[starts.length - 1];
+            int[] newEnds = new int[ends.length - 1];
+            System.arraycopy(starts, 0, newStarts, 0, pos);
+            System.arraycopy(ends, 0, newEnds, 0, pos);
+            System.arraycopy(starts, pos + 1, newStarts, pos, starts.length - pos - 1);
+            System.arraycopy(ends, pos + 1, newEnds, pos, ends.length - pos - 1);
+            return new RoomIntervals(newStarts, newEnds);
+        }
+
+        static RoomIntervals of(List<BookingInterval> intervals) {
+            List<BookingInterval> sorted = intervals.stream()
+                    .sorted(Comparator.comparing(BookingInterval::startDate)
+                            .thenComparing(BookingInterval::endDate))
+                    .collect(Collectors.toList());
+            int[] starts = new int[sorted.size()];
+            int[] ends = new int[sorted.size()];
+            for (int i = 0; i < sorted.size(); i++) {
+                starts[i] = (int) sorted.get(i).startDate().toEpochDay();
+                ends[i] = (int) sorted.get(i).endDate().toEpochDay();
+            }
+            return new RoomIntervals(starts, ends);
+        }
+
+        RoomIntervals endingAfter(int day) {
+            int kept = 0;
+            int[] newStarts = new int[starts.length];
+            int[] newEnds = new int[ends.length];
+            for (int i = 0; i < starts.length; i++) {
+                if (ends[i] > day) {
+                    newStarts[kept] = starts[i];
+                    newEnds[kept] = ends[i];
+                    kept++;
+                }
+            }
+            return kept == starts.length
+                    ? this
+                    : new RoomIntervals(Arrays.copyOf(newStarts, kept), Arrays.copyOf(newEnds, kept));
+        }
+
+        /**
+         * Index of the last range whose start is before {@code day}, or -1.
+         */
+        private int lastStartingBefore(int day) {
+            int lo = 0;
+            int hi = starts.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (starts[mid] < day) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo - 1;
+        }
+
+        /**
+         * First position whose (start, end) is not less than the given pair.
+         */
+        private int insertionPoint(int start, int end) {
+            int lo = 0;
+            int hi = starts.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (starts[mid] < start || (starts[mid] == start && ends[mid] < end)) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RoomIntervals other)) {
+                return false;
+            }
+            return Arrays.equals(starts, other.starts) && Arrays.equals(ends, other.ends);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(starts) + Arrays.hashCode(ends);
+        }
+    }
+}
@@ -1,6 +0,0 @@
-INSERT INTO users (id, username, passwordHash, role)
-VALUES (1, 'user', '$2a$10$Dow1eRZArYrusS4x2ma/pOAEvtTDHkJ/xZBwbNG0Ax7Anxr1L7rSm', 'USER');
-
-INSERT INTO users (id, username, passwordHash, role)
-VALUES (2, 'admin', '$2a$10$Dow1eRZArYrusS4x2ma/pOAEvtTDHkJ/xZBwbNG0Ax7Anxr1L7rSm', 'ADMIN');
-
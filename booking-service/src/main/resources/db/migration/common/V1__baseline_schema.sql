@@ -0,0 +1,59 @@
+-- Schema as previously created by Hibernate from the entities.
+
+CREATE TABLE users (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    username      VARCHAR(255) NOT NULL,
+    password_hash VARCHAR(255) NOT NULL,
+    role          VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+CREATE TABLE bookings (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id         BIGINT                      NOT NULL,
+    hotel_id        BIGINT                      NOT NULL,
+    room_id         BIGINT                      NOT NULL,
+    start_date      DATE                        NOT NULL,
+    end_date        DATE                        NOT NULL,
+    status          VARCHAR(32)                 NOT NULL,
+    created_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    idempotency_key VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_bookings_user_idempotency_key UNIQUE (user_id, idempotency_key),
+    CONSTRAINT ck_bookings_status CHECK (status IN ('PENDING', 'CONFIRMED', 'CANCELLED'))
+);
+
+CREATE INDEX idx_bookings_user_start_id ON bookings (user_id, start_date DESC, id DESC);
+
+CREATE TABLE booking_outbox (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    command_id      VARCHAR(255)                NOT NULL,
+    type            VARCHAR(32)                 NOT NULL,
+    state           VARCHAR(32)                 NOT NULL,
+    booking_id      BIGINT                      NOT NULL,
+    room_id         BIGINT                      NOT NULL,
+    start_date      DATE,
+    end_date        DATE,
+    attempts        INTEGER                     NOT NULL,
+    next_attempt_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    claim_token     VARCHAR(255),
+    last_error      VARCHAR(1000),
+    created_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_booking_outbox_command_id UNIQUE (command_id),
+    CONSTRAINT ck_booking_outbox_type CHECK (type IN ('CONFIRM', 'RELEASE')),
+    CONSTRAINT ck_booking_outbox_state CHECK (state IN ('PENDING', 'DELIVERED', 'FAILED', 'DISCARDED'))
+);
+
+CREATE INDEX idx_outbox_due ON booking_outbox (state, next_attempt_at, id);
+CREATE INDEX idx_outbox_claim ON booking_outbox (claim_token);
+
+CREATE TABLE room_versions (
+    room_id    BIGINT                      NOT NULL,
+    version    BIGINT,
+    updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (room_id)
+);
@@ -0,0 +1,9 @@
+-- Demo accounts, both with password "password".
+
+INSERT INTO users (id, username, password_hash, role)
+VALUES (1, 'user', '$2a$10$Dow1eRZArYrusS4x2ma/pOAEvtTDHkJ/xZBwbNG0Ax7Anxr1L7rSm', 'USER');
+
+INSERT INTO users (id, username, password_hash, role)
+VALUES (2, 'admin', '$2a$10$Dow1eRZArYrusS4x2ma/pOAEvtTDHkJ/xZBwbNG0Ax7Anxr1L7rSm', 'ADMIN');
+
+ALTER TABLE users ALTER COLUMN id RESTART WITH 3;
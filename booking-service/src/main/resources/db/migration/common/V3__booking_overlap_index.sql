@@ -0,0 +1,3 @@
+-- Serves findOverlapping, findOverlappingForUpdate, existsOverlapping and findBusyRoomIds:
+-- equality on room_id and status, then a range on start_date with end_date checked from the index.
+CREATE INDEX idx_bookings_room_status_dates ON bookings (room_id, status, start_date, end_date);
@@ -0,0 +1,2 @@
+-- Serves the outbox retention sweep: settled states, then a range on updated_at.
+CREATE INDEX idx_outbox_settled ON booking_outbox (state, updated_at);
@@ -0,0 +1,3 @@
+-- H2 has no exclusion constraints. Overlapping active bookings are rejected by the admission
+-- check (room lock plus room_versions, or SELECT ... FOR UPDATE); PostgreSQL additionally
+-- enforces it with the bookings_no_active_overlap constraint.
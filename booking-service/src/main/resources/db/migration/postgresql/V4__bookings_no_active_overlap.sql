@@ -0,0 +1,8 @@
+-- Rejects a second active booking of a room for overlapping dates, whatever path wrote it.
+-- [start_date, end_date) matches the half-open ranges the application uses.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings
+    ADD CONSTRAINT bookings_no_active_overlap
+    EXCLUDE USING gist (room_id WITH =, daterange(start_date, end_date, '[)') WITH &&)
+    WHERE (status IN ('PENDING', 'CONFIRMED'));
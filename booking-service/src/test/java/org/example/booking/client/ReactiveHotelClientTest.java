@@ -0,0 +1,125 @@
+package org.example.booking.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.example.booking.client.dto.ConfirmAvailabilityCommand;
+import org.example.booking.client.dto.RoomPage;
+import org.example.booking.config.HotelClientProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveHotelClientTest {
+
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private HttpServer server;
+    private HotelClientProperties properties;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/rooms", exchange -> {
+            requests.add(exchange.getRequestURI().toString());
+            if (failuresLeft.getAndDecrement() > 0) {
+                respond(exchange, 503, "");
+            } else {
+                exchange.getResponseHeaders().add(HotelClient.NEXT_CURSOR_HEADER, "c2");
+                respond(exchange, 200, "[{\"id\":1,\"hotelId\":3,\"number\":\"101\",\"available\":true,\"timesBooked\":4}]");
+            }
+        });
+        server.createContext("/api/rooms/9/confirm-availability", exchange -> respond(exchange, 409, "held"));
+        server.createContext("/api/rooms/recommend", exchange -> {
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "[]");
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        properties = new HotelClientProperties();
+        properties.setBaseUrl("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void getRoomsPage_readsRoomsAndNextCursor() {
+        RoomPage page = client(1).getRoomsPage(3L, 2, "c1");
+
+        assertEquals(List.of("/api/rooms?hotelId=3&limit=2&cursor=c1"), requests);
+        assertEquals(1, page.getRooms().size());
+        assertEquals(3L, page.getRooms().get(0).getHotelId());
+        assertEquals("c2", page.getNextCursor());
+    }
+
+    @Test
+    void serverErrors_areRetriedWithTheInstanceRetryConfig() {
+        failuresLeft.set(2);
+
+        RoomPage page = client(3).getRoomsPage(null, 2, null);
+
+        assertEquals(3, requests.size());
+        assertEquals("c2", page.getNextCursor());
+    }
+
+    @Test
+    void rejectionsAndTimeouts_failLikeTheBlockingClient() {
+        ReactiveHotelClient client = client(1);
+
+        HttpClientErrorException rejected = assertThrows(HttpClientErrorException.class,
+                () -> client.confirmAvailability(9L, new ConfirmAvailabilityCommand(
+                        "b-1", LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 3))));
+        assertEquals(HttpStatus.CONFLICT, rejected.getStatusCode());
+        assertEquals("held", rejected.getResponseBodyAsString());
+
+        properties.setReadTimeout(Duration.ofMillis(300));
+        RuntimeException timedOut = assertThrows(RuntimeException.class,
+                () -> client(1).getRecommendedRoomsPage(null, 2, null));
+        assertInstanceOf(TimeoutException.class, timedOut.getCause());
+    }
+
+    private ReactiveHotelClient client(int maxAttempts) {
+        RetryRegistry retries = RetryRegistry.of(RetryConfig.custom()
+                .maxAttempts(maxAttempts)
+                .waitDuration(Duration.ofMillis(10))
+                .build());
+        WebClient webClient = WebClient.builder().baseUrl(properties.getBaseUrl()).build();
+        return new ReactiveHotelClient(webClient, properties, CircuitBreakerRegistry.ofDefaults(), retries);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            exchange.getResponseBody().write(bytes);
+        }
+        exchange.close();
+    }
+}
@@ -0,0 +1,145 @@
+package org.example.booking.client;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.booking.client.dto.RoomPage;
+import org.example.booking.client.dto.RoomSummary;
+import org.example.booking.config.CatalogProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RoomCatalogCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private HotelClient hotelClient;
+    private SimpleMeterRegistry meterRegistry;
+    private CatalogProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        hotelClient = Mockito.mock(HotelClient.class);
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new CatalogProperties();
+        properties.setPageSize(2);
+        properties.getCache().setTtl(Duration.ofMinutes(5));
+        properties.getCache().setRefreshAfter(Duration.ofMinutes(1));
+        properties.getCache().setMaxStale(Duration.ofHours(1));
+    }
+
+    @Test
+    void getAllRooms_loadsAllPagesOnce() {
+        when(hotelClient.getRoomsPage(null, 2, null)).thenReturn(new RoomPage(List.of(room(1L), room(2L)), "c1"));
+        when(hotelClient.getRoomsPage(null, 2, "c1")).thenReturn(new RoomPage(List.of(room(3L)), null));
+        RoomCatalogCache cache = newCache();
+
+        cache.getAllRooms(null);
+        cache.getAllRooms(null);
+        List<RoomSummary> rooms = cache.getAllRooms(null);
+
+        assertEquals(List.of(1L, 2L, 3L), rooms.stream().map(RoomSummary::getId).toList());
+        verify(hotelClient, times(1)).getRoomsPage(null, 2, null);
+        verify(hotelClient, times(1)).getRoomsPage(null, 2, "c1");
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "hotelRoomCatalog").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void getRecommendedRooms_pagesByIdAndSortsByTimesBooked() {
+        // room 1 is confirmed while the second page loads: an id cursor is unaffected
+        when(hotelClient.getRoomsPage(null, 2, null))
+                .thenReturn(new RoomPage(List.of(room(1L, 3), room(2L, 1)), "c1"));
+        when(hotelClient.getRoomsPage(null, 2, "c1"))
+                .thenReturn(new RoomPage(List.of(room(3L, 1), room(4L, 0)), null));
+        RoomCatalogCache cache = newCache();
+
+        List<RoomSummary> rooms = cache.getRecommendedRooms(null);
+
+        assertEquals(List.of(4L, 2L, 3L, 1L), rooms.stream().map(RoomSummary::getId).toList());
+        verify(hotelClient, never()).getRecommendedRoomsPage(any(), anyInt(), any());
+    }
+
+    @Test
+    void getAllRooms_cachesCatalogPerHotel() {
+        when(hotelClient.getRoomsPage(eq(1L), anyInt(), isNull())).thenReturn(new RoomPage(List.of(room(1L)), null));
+        when(hotelClient.getRoomsPage(eq(2L), anyInt(), isNull())).thenReturn(new RoomPage(List.of(room(5L)), null));
+        RoomCatalogCache cache = newCache();
+
+        assertEquals(1L, cache.getAllRooms(1L).get(0).getId());
+        assertEquals(5L, cache.getAllRooms(2L).get(0).getId());
+        assertEquals(1L, cache.getAllRooms(1L).get(0).getId());
+    }
+
+    @Test
+    void getAllRooms_servesLastGoodCatalogWhenCircuitBreakerIsOpen() {
+        when(hotelClient.getRoomsPage(any(), anyInt(), any()))
+                .thenReturn(new RoomPage(List.of(room(1L), room(2L)), null))
+                .thenThrow(CallNotPermittedException.createCallNotPermittedException(
+                        CircuitBreaker.ofDefaults("hotelRooms")));
+        RoomCatalogCache cache = newCache();
+        cache.getAllRooms(null);
+
+        nanos.addAndGet(Duration.ofMinutes(6).toNanos());
+        List<RoomSummary> rooms = cache.getAllRooms(null);
+
+        assertEquals(2, rooms.size());
+        assertEquals(1.0, meterRegistry.get("cache.stale.served").counter().count());
+    }
+
+    @Test
+    void getAllRooms_failsWhenLastGoodCatalogIsTooOld() {
+        when(hotelClient.getRoomsPage(any(), anyInt(), any()))
+                .thenReturn(new RoomPage(List.of(room(1L)), null))
+                .thenThrow(new RuntimeException("hotel down"));
+        RoomCatalogCache cache = newCache();
+        cache.getAllRooms(null);
+
+        nanos.addAndGet(Duration.ofHours(2).toNanos());
+
+        assertThrows(RuntimeException.class, () -> cache.getAllRooms(null));
+    }
+
+    @Test
+    void getAllRooms_bypassesCacheWhenDisabled() {
+        properties.getCache().setEnabled(false);
+        when(hotelClient.getRoomsPage(any(), anyInt(), any())).thenReturn(new RoomPage(List.of(room(1L)), null));
+        RoomCatalogCache cache = newCache();
+
+        cache.getAllRooms(null);
+        cache.getAllRooms(null);
+
+        verify(hotelClient, times(2)).getRoomsPage(null, 2, null);
+    }
+
+    private RoomCatalogCache newCache() {
+        return new RoomCatalogCache(hotelClient, properties, meterRegistry, nanos::get, Runnable::run);
+    }
+
+    private static RoomSummary room(Long id) {
+        return room(id, 0);
+    }
+
+    private static RoomSummary room(Long id, long timesBooked) {
+        RoomSummary room = new RoomSummary();
+        room.setId(id);
+        room.setHotelId(1L);
+        room.setNumber(String.valueOf(id));
+        room.setAvailable(true);
+        room.setTimesBooked(timesBooked);
+        return room;
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.booking.config;
+
+import org.example.booking.entity.Booking;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.jdbc.dialect.spi.DialectResolutionInfo;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class BookingDialectResolverTest {
+
+    private final BookingDialectResolver resolver = new BookingDialectResolver();
+
+    @Test
+    void postgreSQL_namesTheViolatedExclusionConstraint() {
+        Dialect dialect = resolver.resolveDialect(info("PostgreSQL"));
+
+        assertInstanceOf(BookingDialectResolver.ExclusionAwarePostgreSQLDialect.class, dialect);
+        assertEquals(Booking.NO_ACTIVE_OVERLAP_CONSTRAINT, dialect.getViolatedConstraintNameExtractor()
+                .extractConstraintName(new SQLException("ERROR: conflicting key value violates exclusion constraint \""
+                        + Booking.NO_ACTIVE_OVERLAP_CONSTRAINT + "\"", "23P01")));
+        // other kinds are still named by Hibernate
+        assertEquals("users_username_key", dialect.getViolatedConstraintNameExtractor()
+                .extractConstraintName(new SQLException(
+                        "ERROR: duplicate key value violates unique constraint \"users_username_key\"", "23505")));
+    }
+
+    @Test
+    void otherDatabases_areLeftToHibernate() {
+        assertNull(resolver.resolveDialect(info("H2")));
+    }
+
+    private static DialectResolutionInfo info(String databaseName) {
+        DialectResolutionInfo info = Mockito.mock(DialectResolutionInfo.class, Mockito.CALLS_REAL_METHODS);
+        when(info.getDatabaseName()).thenReturn(databaseName);
+        when(info.getDatabaseMajorVersion()).thenReturn(16);
+        return info;
+    }
+}
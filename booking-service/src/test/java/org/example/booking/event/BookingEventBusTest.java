@@ -0,0 +1,259 @@
+package org.example.booking.event;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.booking.config.EventsProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingEventBusTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<LocalBookingEventTransport> transports = new ArrayList<>();
+
+    @AfterEach
+    void closeTransports() {
+        transports.forEach(LocalBookingEventTransport::close);
+    }
+
+    @Test
+    void receive_appliesInOrderDropsRedeliveriesAndResyncsOnGaps() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        BookingEventBus bus = new BookingEventBus(new InProcessBookingEventTransport(), List.of(subscriber), meterRegistry);
+
+        bus.receive(new BookingEventEnvelope("a", 1, event(1L)));
+        bus.receive(new BookingEventEnvelope("a", 2, event(2L)));
+        bus.receive(new BookingEventEnvelope("a", 2, event(2L)));
+        bus.receive(new BookingEventEnvelope("a", 5, event(5L)));
+        bus.receive(new BookingEventEnvelope("a", 6, event(6L)));
+        // an instance first heard of mid-stream may have changed bookings already
+        bus.receive(new BookingEventEnvelope("b", 3, event(13L)));
+        bus.receive(new BookingEventEnvelope("b", 4, event(14L)));
+
+        assertEquals(List.of(1L, 2L, 6L, 14L), subscriber.bookingIds);
+        assertEquals(2, subscriber.resyncs.get());
+        assertEquals(4.0, received("applied"));
+        assertEquals(1.0, received("duplicate"));
+        assertEquals(2.0, received("gap"));
+    }
+
+    @Test
+    void failingSubscriber_isResyncedWithoutHoldingBackOthers() {
+        RecordingSubscriber failing = new RecordingSubscriber();
+        failing.failNext.set(true);
+        RecordingSubscriber healthy = new RecordingSubscriber();
+        BookingEventBus bus = new BookingEventBus(new InProcessBookingEventTransport(), List.of(failing, healthy), meterRegistry);
+
+        bus.publish(event(1L));
+        bus.publish(event(2L));
+
+        assertEquals(List.of(2L), failing.bookingIds);
+        assertEquals(1, failing.resyncs.get());
+        assertEquals(List.of(1L, 2L), healthy.bookingIds);
+        assertEquals(0, healthy.resyncs.get());
+    }
+
+    @Test
+    void publish_insideTransaction_isSentOnlyAfterCommit() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        BookingEventBus bus = new BookingEventBus(new InProcessBookingEventTransport(), List.of(subscriber), meterRegistry);
+
+        List<TransactionSynchronization> committed = transaction(() -> bus.publish(event(1L)));
+        committed.forEach(synchronization -> synchronization.beforeCommit(false));
+        assertTrue(subscriber.bookingIds.isEmpty());
+        complete(committed, TransactionSynchronization.STATUS_COMMITTED);
+        // rolled back before committing, and failing to commit
+        complete(transaction(() -> bus.publish(event(2L))), TransactionSynchronization.STATUS_ROLLED_BACK);
+        List<TransactionSynchronization> failed = transaction(() -> bus.publish(event(3L)));
+        failed.forEach(synchronization -> synchronization.beforeCommit(false));
+        complete(failed, TransactionSynchronization.STATUS_ROLLED_BACK);
+        bus.publish(event(4L));
+
+        assertEquals(List.of(1L, 4L), subscriber.bookingIds);
+        assertEquals(0, subscriber.resyncs.get());
+    }
+
+    @Test
+    void transactionsCompletingOutOfOrder_areSentInCommitOrder() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        BookingEventBus bus = new BookingEventBus(new InProcessBookingEventTransport(), List.of(subscriber), meterRegistry);
+
+        List<TransactionSynchronization> create = transaction(() -> bus.publish(event(BookingChangedEvent.Type.CREATED, 1L)));
+        create.forEach(synchronization -> synchronization.beforeCommit(false));
+        // the cancel read the committed booking, then finished before the create's completion ran
+        List<TransactionSynchronization> cancel = transaction(() -> bus.publish(event(BookingChangedEvent.Type.CANCELLED, 1L)));
+        cancel.forEach(synchronization -> synchronization.beforeCommit(false));
+        complete(cancel, TransactionSynchronization.STATUS_COMMITTED);
+        assertTrue(subscriber.events.isEmpty());
+        complete(create, TransactionSynchronization.STATUS_COMMITTED);
+
+        assertEquals(List.of(BookingChangedEvent.Type.CREATED, BookingChangedEvent.Type.CANCELLED),
+                subscriber.events.stream().map(BookingChangedEvent::getType).toList());
+        assertEquals(0, subscriber.resyncs.get());
+    }
+
+    @Test
+    void slowSubscriber_doesNotHoldUpOtherPublishers() throws Exception {
+        CountDownLatch delivering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> delivered = new CopyOnWriteArrayList<>();
+        BookingEventSubscriber slow = new BookingEventSubscriber() {
+            @Override
+            public void onBookingChanged(BookingChangedEvent event) {
+                if (event.getBookingId() == 1L) {
+                    delivering.countDown();
+                    assertDoesNotThrow(() -> release.await(5, TimeUnit.SECONDS));
+                }
+                delivered.add(event.getBookingId());
+            }
+
+            @Override
+            public void onEventsMissed() {
+            }
+        };
+        BookingEventBus bus = new BookingEventBus(new InProcessBookingEventTransport(), List.of(slow), meterRegistry);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = pool.submit(() -> bus.publish(event(1L)));
+            assertTrue(delivering.await(5, TimeUnit.SECONDS));
+            // the subscriber is still busy with the first event on the first publisher's thread
+            pool.submit(() -> bus.publish(event(2L))).get(1, TimeUnit.SECONDS);
+            assertEquals(List.of(), delivered);
+
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(List.of(1L, 2L), delivered);
+    }
+
+    @Test
+    void localTransport_deliversEveryInstancesEventsToEveryInstance() throws Exception {
+        String channel = "test-" + UUID.randomUUID();
+        RecordingSubscriber first = new RecordingSubscriber();
+        RecordingSubscriber second = new RecordingSubscriber();
+        BookingEventBus firstBus = new BookingEventBus(localTransport(channel), List.of(first), meterRegistry);
+        BookingEventBus secondBus = new BookingEventBus(localTransport(channel), List.of(second), meterRegistry);
+
+        for (long id = 1; id <= 50; id++) {
+            (id % 2 == 0 ? secondBus : firstBus).publish(event(id));
+        }
+
+        awaitEvents(first, 50);
+        awaitEvents(second, 50);
+        assertEquals(first.bookingIds, second.bookingIds);
+        assertEquals(0, first.resyncs.get() + second.resyncs.get());
+        assertNotEquals(firstBus.getOrigin(), secondBus.getOrigin());
+    }
+
+    @Test
+    void localBroker_redeliversUntilTheHandlerAccepts() throws Exception {
+        LocalBookingEventBroker broker = LocalBookingEventBroker.channel("test-" + UUID.randomUUID());
+        List<Long> handled = new CopyOnWriteArrayList<>();
+        AtomicInteger attempts = new AtomicInteger();
+        try (LocalBookingEventBroker.Subscription ignored = broker.subscribe(envelope -> {
+            if (envelope.sequence() == 1 && attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException("not now");
+            }
+            handled.add(envelope.sequence());
+        }, Duration.ofMillis(1))) {
+            broker.publish(new BookingEventEnvelope("a", 1, event(1L)));
+            broker.publish(new BookingEventEnvelope("a", 2, event(2L)));
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (handled.size() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+        }
+        assertEquals(List.of(1L, 2L), handled);
+        assertEquals(3, attempts.get());
+    }
+
+    /**
+     * Runs {@code body} as the body of a transaction and returns the synchronizations it registered, for
+     * the test to complete.
+     */
+    private static List<TransactionSynchronization> transaction(Runnable body) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            body.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void complete(List<TransactionSynchronization> synchronizations, int status) {
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private LocalBookingEventTransport localTransport(String channel) {
+        EventsProperties properties = new EventsProperties();
+        properties.setChannel(channel);
+        LocalBookingEventTransport transport = new LocalBookingEventTransport(properties);
+        transports.add(transport);
+        return transport;
+    }
+
+    private static void awaitEvents(RecordingSubscriber subscriber, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (subscriber.bookingIds.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, subscriber.bookingIds.size());
+    }
+
+    private double received(String outcome) {
+        return meterRegistry.get("booking.events.received").tag("outcome", outcome).counter().count();
+    }
+
+    private static BookingChangedEvent event(Long bookingId) {
+        return event(BookingChangedEvent.Type.CREATED, bookingId);
+    }
+
+    private static BookingChangedEvent event(BookingChangedEvent.Type type, Long bookingId) {
+        LocalDate start = LocalDate.of(2030, 1, 10);
+        return new BookingChangedEvent(type, bookingId, 1L, 7L, start, start.plusDays(2));
+    }
+
+    private static class RecordingSubscriber implements BookingEventSubscriber {
+
+        private final List<Long> bookingIds = new CopyOnWriteArrayList<>();
+        private final List<BookingChangedEvent> events = new CopyOnWriteArrayList<>();
+        private final AtomicInteger resyncs = new AtomicInteger();
+        private final AtomicBoolean failNext = new AtomicBoolean();
+
+        @Override
+        public void onBookingChanged(BookingChangedEvent event) {
+            if (failNext.getAndSet(false)) {
+                throw new IllegalStateException("boom");
+            }
+            bookingIds.add(event.getBookingId());
+            events.add(event);
+        }
+
+        @Override
+        public void onEventsMissed() {
+            resyncs.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.booking.repository;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks on a table of a million bookings that the overlap and history queries are answered from
+ * their composite indexes. The SQL mirrors what Hibernate generates for the repository queries.
+ * Runs on its own database, dropped when the context closes. Loading the table takes minutes, so the test
+ * is tagged {@code slow} and only runs with {@code -Pslow-tests}.
+ */
+@Tag("slow")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:booking-query-plans")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingQueryPlanTest {
+
+    private static final int BOOKINGS = 1_000_000;
+    private static final int ROOMS = 10_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void fillBookings() {
+        // every room gets back-to-back two-night stays, one booking in ten cancelled
+        jdbcTemplate.update("""
+                INSERT INTO bookings (user_id, hotel_id, room_id, start_date, end_date, status, created_at, updated_at)
+                SELECT MOD(X, 5000), 1, MOD(X, ?),
+                       DATEADD('DAY', X / ? * 2, DATE '2030-01-01'),
+                       DATEADD('DAY', X / ? * 2 + 2, DATE '2030-01-01'),
+                       CASE WHEN MOD(X, 10) = 0 THEN 'CANCELLED' ELSE 'CONFIRMED' END,
+                       CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+                FROM SYSTEM_RANGE(1, ?)
+                """, ROOMS, ROOMS, ROOMS, BOOKINGS);
+        jdbcTemplate.execute("ANALYZE TABLE bookings");
+    }
+
+    @AfterAll
+    void dropBookings() {
+        jdbcTemplate.execute("TRUNCATE TABLE bookings");
+    }
+
+    @Test
+    void overlapLookups_useRoomStatusDatesIndex() {
+        assertEquals(BOOKINGS, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings", Integer.class));
+
+        assertUsesIndex("idx_bookings_room_status_dates", """
+                SELECT b.id, b.room_id, b.start_date, b.end_date FROM bookings b
+                WHERE b.room_id = 42 AND b.status IN ('PENDING', 'CONFIRMED')
+                AND b.start_date < DATE '2030-03-05' AND b.end_date > DATE '2030-03-03'
+                """);
+        assertUsesIndex("idx_bookings_room_status_dates", """
+                SELECT b.id FROM bookings b
+                WHERE b.room_id = 42 AND b.status IN ('PENDING', 'CONFIRMED')
+                AND b.start_date < DATE '2030-03-05' AND b.end_date > DATE '2030-03-03'
+                FOR UPDATE
+                """);
+        assertUsesIndex("idx_bookings_room_status_dates", """
+                SELECT DISTINCT b.room_id FROM bookings b
+                WHERE b.room_id IN (1, 2, 3, 500, 9999) AND b.status IN ('PENDING', 'CONFIRMED')
+                AND b.start_date < DATE '2030-03-05' AND b.end_date > DATE '2030-03-03'
+                """);
+    }
+
+    @Test
+    void historyPage_usesUserStartDateIndex() {
+        assertUsesIndex("idx_bookings_user_start_id", """
+                SELECT b.id, b.hotel_id, b.room_id, b.start_date, b.end_date, b.status FROM bookings b
+                WHERE b.user_id = 7 AND b.start_date <= DATE '2030-06-01'
+                AND (b.start_date < DATE '2030-06-01' OR (b.start_date = DATE '2030-06-01' AND b.id < 500000))
+                ORDER BY b.start_date DESC, b.id DESC
+                FETCH FIRST 21 ROWS ONLY
+                """);
+    }
+
+    private void assertUsesIndex(String index, String sql) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        assertTrue(plan.toUpperCase().contains(index.toUpperCase()), () -> "Expected " + index + " in plan:\n" + plan);
+        assertFalse(plan.contains("tableScan"), () -> "Unexpected table scan in plan:\n" + plan);
+    }
+}
@@ -0,0 +1,236 @@
+package org.example.booking.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.booking.config.AvailabilityProperties;
+import org.example.booking.dto.AvailableRoomResponse;
+import org.example.booking.event.BookingChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AvailabilitySearchCoalescerTest {
+
+    private static final LocalDate START = LocalDate.of(2030, 1, 10);
+    private static final LocalDate END = LocalDate.of(2030, 1, 12);
+
+    private final AtomicLong nanos = new AtomicLong();
+    private AvailabilityService availabilityService;
+    private SimpleMeterRegistry meterRegistry;
+    private AvailabilityProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        availabilityService = Mockito.mock(AvailabilityService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new AvailabilityProperties();
+        properties.getCoalescing().setResultTtl(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void concurrentIdenticalSearches_shareOneEvaluationWithPerCallerLimits() throws Exception {
+        CountDownLatch evaluating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(availabilityService.getAvailableRooms(START, END, 1L, null, false)).thenAnswer(invocation -> {
+            evaluating.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return rooms(10);
+        });
+        AvailabilitySearchCoalescer coalescer = newCoalescer();
+
+        int callers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<List<AvailableRoomResponse>>> results = new ArrayList<>();
+            results.add(pool.submit(() -> coalescer.getAvailableRooms(START, END, 1L, null, false)));
+            assertTrue(evaluating.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < callers; i++) {
+                int limit = i;
+                results.add(pool.submit(() -> coalescer.getAvailableRooms(START, END, 1L, limit, false)));
+            }
+            while (searches("coalesced") < callers - 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertEquals(10, results.get(0).get(5, TimeUnit.SECONDS).size());
+            for (int i = 1; i < callers; i++) {
+                List<AvailableRoomResponse> rooms = results.get(i).get(5, TimeUnit.SECONDS);
+                assertEquals(LongStream.rangeClosed(1, i).boxed().toList(),
+                        rooms.stream().map(AvailableRoomResponse::getId).toList());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        verify(availabilityService, times(1)).getAvailableRooms(any(), any(), any(), any(), anyBoolean());
+        assertEquals(1.0, searches("evaluated"));
+    }
+
+    @Test
+    void finishedEvaluation_answersIdenticalSearchesUntilTtl() {
+        when(availabilityService.getAvailableRooms(START, END, null, null, true)).thenReturn(rooms(3));
+        AvailabilitySearchCoalescer coalescer = newCoalescer();
+
+        coalescer.getAvailableRooms(START, END, null, null, true);
+        assertEquals(2, coalescer.getAvailableRooms(START, END, null, 2, true).size());
+        // a different listing is a different search
+        coalescer.getAvailableRooms(START, END, null, null, false);
+        nanos.addAndGet(Duration.ofSeconds(2).toNanos());
+        coalescer.getAvailableRooms(START, END, null, null, true);
+
+        verify(availabilityService, times(2)).getAvailableRooms(START, END, null, null, true);
+        assertEquals(1.0, searches("cached"));
+    }
+
+    @Test
+    void bookingChanges_invalidateSearchesOfTheirHotelAndAllHotels() {
+        when(availabilityService.getAvailableRooms(eq(START), eq(END), any(), isNull(), eq(false))).thenReturn(rooms(3));
+        AvailabilitySearchCoalescer coalescer = newCoalescer();
+        coalescer.getAvailableRooms(START, END, 1L, null, false);
+        coalescer.getAvailableRooms(START, END, 2L, null, false);
+        coalescer.getAvailableRooms(START, END, null, null, false);
+
+        coalescer.onBookingChanged(event(BookingChangedEvent.Type.CONFIRMED, 1L));
+        coalescer.getAvailableRooms(START, END, 1L, null, false);
+        verify(availabilityService, times(1)).getAvailableRooms(START, END, 1L, null, false);
+
+        coalescer.onBookingChanged(event(BookingChangedEvent.Type.CREATED, 1L));
+        coalescer.getAvailableRooms(START, END, 1L, null, false);
+        coalescer.getAvailableRooms(START, END, 2L, null, false);
+        coalescer.getAvailableRooms(START, END, null, null, false);
+        verify(availabilityService, times(2)).getAvailableRooms(START, END, 1L, null, false);
+        verify(availabilityService, times(1)).getAvailableRooms(START, END, 2L, null, false);
+        verify(availabilityService, times(2)).getAvailableRooms(START, END, null, null, false);
+
+        coalescer.onBookingChanged(event(BookingChangedEvent.Type.CANCELLED, 2L));
+        coalescer.getAvailableRooms(START, END, 2L, null, false);
+        verify(availabilityService, times(2)).getAvailableRooms(START, END, 2L, null, false);
+    }
+
+    @Test
+    void failedEvaluation_isNotCached() {
+        when(availabilityService.getAvailableRooms(START, START, null, 5, false))
+                .thenThrow(new IllegalArgumentException("Invalid date range"));
+        AvailabilitySearchCoalescer coalescer = newCoalescer();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> coalescer.getAvailableRooms(START, START, null, 5, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> coalescer.getAvailableRooms(START, START, null, 5, false));
+        verify(availabilityService, times(2)).getAvailableRooms(START, START, null, 5, false);
+    }
+
+    @Test
+    void leaderFailingWithError_failsParkedFollowers() throws Exception {
+        CountDownLatch evaluating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(availabilityService.getAvailableRooms(START, END, 1L, null, false)).thenAnswer(invocation -> {
+            evaluating.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            throw new OutOfMemoryError("evaluation");
+        });
+        AvailabilitySearchCoalescer coalescer = newCoalescer();
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<AvailableRoomResponse>> leader =
+                    pool.submit(() -> coalescer.getAvailableRooms(START, END, 1L, null, false));
+            assertTrue(evaluating.await(5, TimeUnit.SECONDS));
+            Future<List<AvailableRoomResponse>> follower =
+                    pool.submit(() -> coalescer.getAvailableRooms(START, END, 1L, 5, false));
+            while (searches("coalesced") < 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            for (Future<List<AvailableRoomResponse>> result : List.of(leader, follower)) {
+                ExecutionException failure = assertThrows(ExecutionException.class,
+                        () -> result.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(OutOfMemoryError.class, failure.getCause());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void limitedSearch_isEvaluatedWithItsLimitAndServesSmallerOnes() {
+        when(availabilityService.getAvailableRooms(START, END, 1L, 10, false)).thenReturn(rooms(10));
+        when(availabilityService.getAvailableRooms(START, END, 1L, 20, false)).thenReturn(rooms(20));
+        AvailabilitySearchCoalescer coalescer = newCoalescer();
+
+        assertEquals(10, coalescer.getAvailableRooms(START, END, 1L, 10, false).size());
+        assertEquals(5, coalescer.getAvailableRooms(START, END, 1L, 5, false).size());
+        // ten rooms found for a limit of ten: there may be more, so a larger limit is evaluated again
+        assertEquals(20, coalescer.getAvailableRooms(START, END, 1L, 20, false).size());
+        assertEquals(10, coalescer.getAvailableRooms(START, END, 1L, 10, false).size());
+
+        verify(availabilityService, times(1)).getAvailableRooms(START, END, 1L, 10, false);
+        verify(availabilityService, times(1)).getAvailableRooms(START, END, 1L, 20, false);
+        verify(availabilityService, times(2)).getAvailableRooms(any(), any(), any(), any(), anyBoolean());
+        assertEquals(2.0, searches("cached"));
+    }
+
+    @Test
+    void limitedSearchFindingFewerRooms_answersAnyLimit() {
+        when(availabilityService.getAvailableRooms(START, END, 1L, 10, false)).thenReturn(rooms(3));
+        AvailabilitySearchCoalescer coalescer = newCoalescer();
+
+        coalescer.getAvailableRooms(START, END, 1L, 10, false);
+        assertEquals(3, coalescer.getAvailableRooms(START, END, 1L, null, false).size());
+        assertEquals(3, coalescer.getAvailableRooms(START, END, 1L, 50, false).size());
+
+        verify(availabilityService, times(1)).getAvailableRooms(any(), any(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    void disabled_passesLimitThrough() {
+        properties.getCoalescing().setEnabled(false);
+        when(availabilityService.getAvailableRooms(START, END, null, 2, false)).thenReturn(rooms(2));
+        AvailabilitySearchCoalescer coalescer = newCoalescer();
+
+        coalescer.getAvailableRooms(START, END, null, 2, false);
+        coalescer.getAvailableRooms(START, END, null, 2, false);
+
+        verify(availabilityService, times(2)).getAvailableRooms(START, END, null, 2, false);
+    }
+
+    private AvailabilitySearchCoalescer newCoalescer() {
+        return new AvailabilitySearchCoalescer(availabilityService, properties, meterRegistry, nanos::get);
+    }
+
+    private double searches(String outcome) {
+        return meterRegistry.get("availability.searches").tag("outcome", outcome).counter().count();
+    }
+
+    private static List<AvailableRoomResponse> rooms(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> AvailableRoomResponse.builder().id(id).hotelId(1L).number(String.valueOf(id)).build())
+                .toList();
+    }
+
+    private static BookingChangedEvent event(BookingChangedEvent.Type type, Long hotelId) {
+        return new BookingChangedEvent(type, 1L, hotelId, 7L, START, END);
+    }
+}
@@ -0,0 +1,241 @@
+package org.example.booking.service;
+
+import org.example.booking.client.HotelClient;
+import org.example.booking.client.RoomCatalogCache;
+import org.example.booking.client.dto.RoomPage;
+import org.example.booking.client.dto.RoomSummary;
+import org.example.booking.config.AvailabilityProperties;
+import org.example.booking.dto.AvailableRoomResponse;
+import org.example.booking.entity.Booking;
+import org.example.booking.entity.Status;
+import org.example.booking.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+class AvailabilityServiceTest {
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private AvailabilitySearchCoalescer availabilitySearch;
+
+    @MockitoSpyBean
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private HotelClient hotelClient;
+
+    @Autowired
+    private RoomOccupancyIndex occupancyIndex;
+
+    @Autowired
+    private RoomCatalogCache roomCatalog;
+
+    @Autowired
+    private AvailabilityProperties availabilityProperties;
+
+    @TestConfiguration
+    static class AvailabilityServiceTestConfig {
+        @Bean
+        @Primary
+        HotelClient hotelClientMock() {
+            return Mockito.mock(HotelClient.class);
+        }
+    }
+
+    @BeforeEach
+    void clearCatalog() {
+        roomCatalog.invalidateAll();
+    }
+
+    @AfterTransaction
+    void rebuildIndex() {
+        occupancyIndex.rebuild();
+    }
+
+    @Test
+    @Transactional
+    void getAvailableRooms_excludesBusyRoomsAcrossLookupChunks() {
+        // bookings below are not committed, so the index can't see them: force the database path
+        occupancyIndex.markStale();
+        int roomCount = AvailabilityService.BUSY_LOOKUP_CHUNK_SIZE * 2 + 7;
+        stubCatalog(rooms(roomCount));
+
+        LocalDate start = LocalDate.now().plusDays(10);
+        LocalDate end = LocalDate.now().plusDays(12);
+        long[] busyRooms = {1L, AvailabilityService.BUSY_LOOKUP_CHUNK_SIZE + 1L, roomCount};
+        for (long roomId : busyRooms) {
+            bookingRepository.save(booking(roomId, start.plusDays(1), end.plusDays(1), Status.CONFIRMED));
+        }
+        bookingRepository.save(booking(2L, start.minusDays(2), start, Status.CONFIRMED));
+        bookingRepository.save(booking(3L, start, end, Status.CANCELLED));
+
+        List<AvailableRoomResponse> result = availabilityService.getAvailableRooms(start, end, null, null, false);
+
+        assertEquals(roomCount - busyRooms.length, result.size());
+        for (long roomId : busyRooms) {
+            assertTrue(result.stream().noneMatch(r -> r.getId() == roomId));
+        }
+        assertTrue(result.stream().anyMatch(r -> r.getId() == 2L));
+        assertTrue(result.stream().anyMatch(r -> r.getId() == 3L));
+    }
+
+    @Test
+    @Transactional
+    void getAvailableRooms_filtersByHotelAndAppliesLimit() {
+        stubCatalog(rooms(20));
+
+        LocalDate start = LocalDate.now().plusDays(10);
+        LocalDate end = LocalDate.now().plusDays(12);
+
+        List<AvailableRoomResponse> result = availabilityService.getAvailableRooms(start, end, 2L, 3, false);
+
+        assertEquals(3, result.size());
+        assertTrue(result.stream().allMatch(r -> r.getHotelId() == 2L));
+        assertTrue(result.get(0).getId() < result.get(1).getId());
+    }
+
+    @Test
+    @Transactional
+    void getRecommendedRooms_walksRankOrderAndStopsAtLimit() {
+        occupancyIndex.markStale();
+        List<RoomSummary> catalog = rooms(100);
+        catalog.forEach(r -> r.setTimesBooked(r.getId() % 7));
+        List<RoomSummary> ranked = catalog.stream()
+                .sorted(Comparator.comparing(RoomSummary::getTimesBooked).thenComparing(RoomSummary::getId))
+                .toList();
+        List<RoomSummary> shuffled = new ArrayList<>(catalog);
+        Collections.shuffle(shuffled, new Random(42));
+        doReturn(new RoomPage(shuffled, null)).when(hotelClient).getRoomsPage(any(), anyInt(), any());
+
+        LocalDate start = LocalDate.now().plusDays(10);
+        LocalDate end = LocalDate.now().plusDays(12);
+        bookingRepository.save(booking(ranked.get(0).getId(), start, end, Status.CONFIRMED));
+        bookingRepository.save(booking(ranked.get(1).getId(), start, end, Status.PENDING));
+
+        List<AvailableRoomResponse> result = availabilityService.getAvailableRooms(start, end, null, 3, true);
+
+        assertEquals(ranked.subList(2, 5).stream().map(RoomSummary::getId).toList(),
+                result.stream().map(AvailableRoomResponse::getId).toList());
+    }
+
+    @Test
+    @Transactional
+    void limitedSearchThroughCoalescer_stopsAfterFirstLookupChunk() {
+        occupancyIndex.markStale();
+        stubCatalog(rooms(AvailabilityService.BUSY_LOOKUP_CHUNK_SIZE * 4));
+        LocalDate start = LocalDate.now().plusDays(40);
+        LocalDate end = LocalDate.now().plusDays(42);
+        clearInvocations(bookingRepository);
+
+        List<AvailableRoomResponse> result = availabilitySearch.getAvailableRooms(start, end, null, 10, false);
+
+        assertEquals(10, result.size());
+        // an unlimited walk would take four full-size lookups
+        verify(bookingRepository, times(1)).findBusyRoomIds(any(), any(), any(), any());
+    }
+
+    @Test
+    void getAvailableRooms_parallelEvaluationMatchesSequential() {
+        // worker threads only see committed bookings, so this test commits and cleans up itself
+        AvailabilityProperties.Parallel parallel = availabilityProperties.getParallel();
+        try {
+            occupancyIndex.markStale();
+            int roomCount = 1_000;
+            stubCatalog(rooms(roomCount));
+            LocalDate start = LocalDate.now().plusDays(10);
+            LocalDate end = LocalDate.now().plusDays(12);
+            for (long roomId = 3; roomId <= roomCount; roomId += 7) {
+                bookingRepository.save(booking(roomId, start, end, Status.CONFIRMED));
+            }
+
+            List<AvailableRoomResponse> sequential = availabilityService.getAvailableRooms(start, end, null, null, false);
+            List<AvailableRoomResponse> sequentialLimited = availabilityService.getAvailableRooms(start, end, null, 150, false);
+            parallel.setEnabled(true);
+            parallel.setChunkSize(64);
+
+            assertEquals(ids(sequential), ids(availabilityService.getAvailableRooms(start, end, null, null, false)));
+            assertEquals(ids(sequentialLimited), ids(availabilityService.getAvailableRooms(start, end, null, 150, false)));
+        } finally {
+            parallel.setEnabled(false);
+            parallel.setChunkSize(500);
+            bookingRepository.deleteAll();
+            occupancyIndex.rebuild();
+        }
+    }
+
+    private static List<Long> ids(List<AvailableRoomResponse> rooms) {
+        return rooms.stream().map(AvailableRoomResponse::getId).toList();
+    }
+
+    /**
+     * Serves the given rooms the way hotel-service does: filtered by hotel and split into keyset pages.
+     */
+    private void stubCatalog(List<RoomSummary> allRooms) {
+        doAnswer(invocation -> {
+            Long hotelId = invocation.getArgument(0);
+            int limit = invocation.getArgument(1);
+            String cursor = invocation.getArgument(2);
+            long afterId = cursor == null ? 0 : Long.parseLong(cursor);
+            List<RoomSummary> matching = allRooms.stream()
+                    .filter(r -> hotelId == null || hotelId.equals(r.getHotelId()))
+                    .filter(r -> r.getId() > afterId)
+                    .toList();
+            List<RoomSummary> page = matching.subList(0, Math.min(limit, matching.size()));
+            String next = matching.size() > limit ? String.valueOf(page.get(page.size() - 1).getId()) : null;
+            return new RoomPage(page, next);
+        }).when(hotelClient).getRoomsPage(any(), anyInt(), any());
+    }
+
+    private static List<RoomSummary> rooms(int count) {
+        List<RoomSummary> rooms = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            RoomSummary room = new RoomSummary();
+            room.setId(id);
+            room.setHotelId(id % 3 + 1);
+            room.setNumber(String.valueOf(id));
+            room.setAvailable(true);
+            room.setTimesBooked(0L);
+            rooms.add(room);
+        }
+        return rooms;
+    }
+
+    private static Booking booking(Long roomId, LocalDate start, LocalDate end, Status status) {
+        return Booking.builder()
+                .userId(1L)
+                .hotelId(1L)
+                .roomId(roomId)
+                .startDate(start)
+                .endDate(end)
+                .status(status)
+                .build();
+    }
+}
@@ -4,6 +4,9 @@ import org.example.booking.client.HotelClient;
 import org.example.booking.dto.BookingRequest;
 import org.example.booking.entity.Status;
 import org.example.booking.repository.BookingRepository;
+import org.example.booking.repository.OutboxCommandRepository;
+import org.example.booking.repository.RoomVersionRepository;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
@@ -17,22 +20,37 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.function.LongFunction;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.doNothing;
 
-@SpringBootTest
+// generous stripe timeout: with hundreds of threads and a small connection pool, different rooms
+// sharing a stripe may legitimately wait longer than the production default
+@SpringBootTest(properties = "booking.admission.lock-timeout=PT30S")
 class BookingConcurrencyTest {
 
+    private static final int THREADS = 200;
+
     @Autowired
     private BookingService bookingService;
 
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private RoomVersionRepository roomVersionRepository;
+
+    @Autowired
+    private OutboxCommandRepository outboxRepository;
+
+    @Autowired
+    private RoomOccupancyIndex occupancyIndex;
+
     @Autowired
     private HotelClient hotelClient;
 
@@ -45,6 +63,14 @@ class BookingConcurrencyTest {
         }
     }
 
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        roomVersionRepository.deleteAll();
+        outboxRepository.deleteAll();
+        occupancyIndex.rebuild();
+    }
+
     @Test
     void concurrentBookings_onlyOneSucceedsForSameRoomAndDates() throws Exception {
         doNothing().when(hotelClient).confirmAvailability(
@@ -52,21 +78,49 @@ class BookingConcurrencyTest {
                 ArgumentMatchers.any()
         );
 
+        long successCount = runConcurrently(userId -> 1L);
+
+        assertEquals(1, successCount);
+        assertEquals(1, bookingRepository.count());
+        assertEquals(Status.CONFIRMED, bookingRepository.findAll().get(0).getStatus());
+    }
+
+    @Test
+    void concurrentBookings_allSucceedForDifferentRooms() throws Exception {
+        doNothing().when(hotelClient).confirmAvailability(
+                ArgumentMatchers.anyLong(),
+                ArgumentMatchers.any()
+        );
+
+        long successCount = runConcurrently(userId -> userId);
+
+        assertEquals(THREADS, successCount);
+        assertEquals(THREADS, bookingRepository.count());
+        assertTrue(bookingRepository.findAll().stream().allMatch(b -> b.getStatus() == Status.CONFIRMED));
+        assertEquals(THREADS, roomVersionRepository.count());
+    }
+
+    /**
+     * Fires {@link #THREADS} bookings for the same dates at once, user i booking room {@code roomForUser(i)}.
+     * Returns how many were admitted; a rejection must be an {@link IllegalStateException} (409).
+     */
+    private long runConcurrently(LongFunction<Long> roomForUser) throws Exception {
         LocalDate start = LocalDate.now().plusDays(1);
         LocalDate end = LocalDate.now().plusDays(3);
 
-        int threads = 5;
-        var executor = Executors.newFixedThreadPool(threads);
+        var executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
         List<Callable<Boolean>> tasks = new ArrayList<>();
 
-        for (int i = 0; i < threads; i++) {
+        for (int i = 0; i < THREADS; i++) {
             final long userId = i + 1;
             tasks.add(() -> {
                 BookingRequest request = new BookingRequest();
                 request.setHotelId(1L);
-                request.setRoomId(1L);
+                request.setRoomId(roomForUser.apply(userId));
                 request.setStartDate(start);
                 request.setEndDate(end);
+                startSignal.await();
                 try {
                     bookingService.createBooking(userId, request, null);
                     return true;
@@ -76,21 +130,19 @@ class BookingConcurrencyTest {
             });
         }
 
-        List<Future<Boolean>> futures = executor.invokeAll(tasks);
-        executor.shutdown();
-
-        long successCount = futures.stream()
-                .filter(f -> {
-                    try {
-                        return f.get();
-                    } catch (Exception e) {
-                        return false;
-                    }
-                })
-                .count();
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (Callable<Boolean> task : tasks) {
+            futures.add(executor.submit(task));
+        }
+        startSignal.countDown();
 
-        assertEquals(1, successCount);
-        assertEquals(1, bookingRepository.count());
-        assertEquals(Status.CONFIRMED, bookingRepository.findAll().get(0).getStatus());
+        long successCount = 0;
+        for (Future<Boolean> future : futures) {
+            if (future.get()) {
+                successCount++;
+            }
+        }
+        executor.shutdown();
+        return successCount;
     }
 }
@@ -1,11 +1,23 @@
 package org.example.booking.service;
 
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import org.example.booking.client.HotelClient;
+import org.example.booking.client.RestHotelClient;
+import org.example.booking.client.dto.ConfirmAvailabilityCommand;
+import org.example.booking.client.dto.RoomCommandResult;
+import org.example.booking.client.dto.RoomConfirmCommand;
+import org.example.booking.client.dto.RoomReleaseCommand;
+import org.example.booking.dto.BookingPage;
 import org.example.booking.dto.BookingRequest;
 import org.example.booking.dto.BookingResponse;
 import org.example.booking.entity.Booking;
+import org.example.booking.entity.OutboxCommand;
 import org.example.booking.entity.Status;
 import org.example.booking.repository.BookingRepository;
+import org.example.booking.repository.OutboxCommandRepository;
+import org.example.booking.repository.RoomVersionRepository;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
@@ -14,13 +26,24 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.HttpClientErrorException;
 
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 @SpringBootTest
 class BookingServiceTest {
@@ -34,15 +57,43 @@ class BookingServiceTest {
     @Autowired
     private HotelClient hotelClient;
 
+    @Autowired
+    private RoomVersionRepository roomVersionRepository;
+
+    @Autowired
+    private RoomOccupancyIndex occupancyIndex;
+
+    @Autowired
+    private OutboxCommandRepository outboxRepository;
+
+    @Autowired
+    private BookingOutbox bookingOutbox;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @TestConfiguration
     static class BookingServiceTestConfig {
         @Bean
         @Primary
         HotelClient hotelClientMock() {
-            return Mockito.mock(HotelClient.class);
+            // a mock of the blocking client keeps its resilience annotations, so calls go through the aspects
+            return Mockito.mock(RestHotelClient.class);
         }
     }
 
+    @BeforeEach
+    void resetCircuitBreakers() {
+        // the HotelClient mock is wrapped by the resilience aspects; failure tests must not open them for others
+        circuitBreakerRegistry.getAllCircuitBreakers().forEach(CircuitBreaker::reset);
+    }
+
     @Test
     @Transactional
     void createBooking_successfullyCreatesConfirmedBooking() {
@@ -186,4 +237,218 @@ class BookingServiceTest {
         assertEquals(2, firstPage.size());
         assertEquals(1, secondPage.size());
     }
+
+    @Test
+    @Transactional
+    void getUserBookingHistory_pagesLatestStaysFirstWithCursor() {
+        doNothing().when(hotelClient).confirmAvailability(
+                ArgumentMatchers.anyLong(),
+                ArgumentMatchers.any()
+        );
+        LocalDate start = LocalDate.now().plusDays(1);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            BookingRequest request = new BookingRequest();
+            request.setHotelId(1L);
+            request.setRoomId(10L + i);
+            // two bookings share a start date, so the id breaks the tie
+            request.setStartDate(start.plusDays(i == 2 ? 0 : i));
+            request.setEndDate(start.plusDays(5));
+            ids.add(bookingService.createBooking(77L, request, "history-key-" + i).getId());
+        }
+
+        BookingPage first = bookingService.getUserBookingHistory(77L, 2, null);
+        BookingPage second = bookingService.getUserBookingHistory(77L, 2, first.getNextCursor());
+
+        assertEquals(List.of(ids.get(1), ids.get(2)), first.getItems().stream().map(BookingResponse::getId).toList());
+        assertNotNull(first.getNextCursor());
+        assertEquals(List.of(ids.get(0)), second.getItems().stream().map(BookingResponse::getId).toList());
+        assertNull(second.getNextCursor());
+        assertThrows(IllegalArgumentException.class, () -> bookingService.getUserBookingHistory(77L, 2, "garbage"));
+    }
+
+    @Test
+    void createBooking_confirmsWithHotelOutsideTransaction() {
+        AtomicReference<Boolean> transactionActive = new AtomicReference<>();
+        AtomicReference<Status> statusDuringCall = new AtomicReference<>();
+        doAnswer(invocation -> {
+            transactionActive.set(TransactionSynchronizationManager.isActualTransactionActive());
+            Long bookingId = Long.valueOf(invocation.<ConfirmAvailabilityCommand>getArgument(1).getBookingId());
+            statusDuringCall.set(bookingRepository.findById(bookingId).orElseThrow().getStatus());
+            return null;
+        }).when(hotelClient).confirmAvailability(ArgumentMatchers.anyLong(), ArgumentMatchers.any());
+
+        BookingRequest request = new BookingRequest();
+        request.setHotelId(1L);
+        request.setRoomId(42L);
+        request.setStartDate(LocalDate.now().plusDays(1));
+        request.setEndDate(LocalDate.now().plusDays(3));
+
+        try {
+            BookingResponse response = bookingService.createBooking(1L, request, null);
+
+            assertEquals(Status.CONFIRMED.name(), response.getStatus());
+            assertFalse(transactionActive.get());
+            // PENDING was already committed when hotel-service was called
+            assertEquals(Status.PENDING, statusDuringCall.get());
+        } finally {
+            bookingRepository.deleteAll();
+            roomVersionRepository.deleteAll();
+            outboxRepository.deleteAll();
+            occupancyIndex.rebuild();
+        }
+    }
+
+    @Test
+    @Transactional
+    void createBooking_settlesDeferredConfirmCommand() {
+        doNothing().when(hotelClient).confirmAvailability(
+                ArgumentMatchers.anyLong(),
+                ArgumentMatchers.any()
+        );
+
+        BookingRequest request = new BookingRequest();
+        request.setHotelId(1L);
+        request.setRoomId(1L);
+        request.setStartDate(LocalDate.now().plusDays(1));
+        request.setEndDate(LocalDate.now().plusDays(3));
+
+        BookingResponse response = bookingService.createBooking(1L, request, null);
+
+        OutboxCommand confirm = outboxRepository.findByCommandId("confirm-" + response.getId()).orElseThrow();
+        assertEquals(OutboxCommand.State.DELIVERED, confirm.getState());
+    }
+
+    @Test
+    @Transactional
+    void cancelBooking_enqueuesReleaseInsteadOfCallingHotel() {
+        doNothing().when(hotelClient).confirmAvailability(
+                ArgumentMatchers.anyLong(),
+                ArgumentMatchers.any()
+        );
+
+        BookingRequest request = new BookingRequest();
+        request.setHotelId(1L);
+        request.setRoomId(1L);
+        request.setStartDate(LocalDate.now().plusDays(1));
+        request.setEndDate(LocalDate.now().plusDays(3));
+        BookingResponse created = bookingService.createBooking(1L, request, null);
+
+        bookingService.cancelBooking(1L, created.getId());
+
+        verify(hotelClient, never()).release(ArgumentMatchers.anyLong(), ArgumentMatchers.argThat(
+                command -> command.getBookingId().equals(String.valueOf(created.getId()))));
+        OutboxCommand release = outboxRepository.findByCommandId("release-" + created.getId()).orElseThrow();
+        assertEquals(OutboxCommand.State.PENDING, release.getState());
+
+        doAnswer(invocation -> invocation.<List<RoomReleaseCommand>>getArgument(0).stream()
+                .map(c -> new RoomCommandResult(c.getRoomId(), c.getBookingId(), true, null)).toList())
+                .when(hotelClient).releaseBatch(ArgumentMatchers.anyList());
+        outboxDispatcher.dispatchDue();
+
+        verify(hotelClient).releaseBatch(ArgumentMatchers.argThat(commands -> commands.stream().anyMatch(
+                command -> command.getRoomId() == 1L
+                        && command.getBookingId().equals(String.valueOf(created.getId())))));
+        assertEquals(OutboxCommand.State.DELIVERED,
+                outboxRepository.findByCommandId("release-" + created.getId()).orElseThrow().getState());
+    }
+
+    @Test
+    @Transactional
+    void outboxDispatcher_confirmsAbandonedPendingBookingsInOneBatchCall() {
+        Booking abandoned = bookingRepository.save(pendingBooking());
+        Booking rejected = bookingRepository.save(pendingBooking());
+        bookingOutbox.enqueue(OutboxCommand.Type.CONFIRM, abandoned, OffsetDateTime.now().minusSeconds(1));
+        bookingOutbox.enqueue(OutboxCommand.Type.CONFIRM, rejected, OffsetDateTime.now().minusSeconds(1));
+        String rejectedId = String.valueOf(rejected.getId());
+        doAnswer(invocation -> invocation.<List<RoomConfirmCommand>>getArgument(0).stream()
+                .map(c -> new RoomCommandResult(c.getRoomId(), c.getBookingId(), !c.getBookingId().equals(rejectedId),
+                        c.getBookingId().equals(rejectedId) ? "Room is temporarily held by another booking" : null)).toList())
+                .when(hotelClient).confirmAvailabilityBatch(ArgumentMatchers.anyList());
+
+        outboxDispatcher.dispatchDue();
+
+        verify(hotelClient).confirmAvailabilityBatch(ArgumentMatchers.argThat(commands -> commands.size() == 2));
+        assertEquals(Status.CONFIRMED, bookingRepository.findById(abandoned.getId()).orElseThrow().getStatus());
+        assertEquals(OutboxCommand.State.DELIVERED,
+                outboxRepository.findByCommandId("confirm-" + abandoned.getId()).orElseThrow().getState());
+        assertEquals(Status.CANCELLED, bookingRepository.findById(rejected.getId()).orElseThrow().getStatus());
+        assertEquals(OutboxCommand.State.FAILED,
+                outboxRepository.findByCommandId("confirm-" + rejected.getId()).orElseThrow().getState());
+    }
+
+    @Test
+    @Transactional
+    void outboxDispatcher_backsOffOnFailureAndCancelsWhenHotelRejects() {
+        Booking pending = bookingRepository.save(pendingBooking());
+        bookingOutbox.enqueue(OutboxCommand.Type.CONFIRM, pending, OffsetDateTime.now().minusSeconds(1));
+        String commandId = "confirm-" + pending.getId();
+
+        doThrow(new RuntimeException("hotel down"))
+                .when(hotelClient)
+                .confirmAvailabilityBatch(ArgumentMatchers.anyList());
+        outboxDispatcher.dispatchDue();
+
+        OutboxCommand retried = outboxRepository.findByCommandId(commandId).orElseThrow();
+        assertEquals(OutboxCommand.State.PENDING, retried.getState());
+        assertEquals(1, retried.getAttempts());
+        assertTrue(retried.getNextAttemptAt().isAfter(OffsetDateTime.now()));
+        assertEquals(Status.PENDING, bookingRepository.findById(pending.getId()).orElseThrow().getStatus());
+
+        retried.setNextAttemptAt(OffsetDateTime.now().minusSeconds(1));
+        outboxRepository.saveAndFlush(retried);
+        resetCircuitBreakers();
+        doThrow(HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "Bad Request", null, null, null))
+                .when(hotelClient)
+                .confirmAvailabilityBatch(ArgumentMatchers.anyList());
+        outboxDispatcher.dispatchDue();
+
+        assertEquals(OutboxCommand.State.FAILED, outboxRepository.findByCommandId(commandId).orElseThrow().getState());
+        assertEquals(Status.CANCELLED, bookingRepository.findById(pending.getId()).orElseThrow().getStatus());
+        assertEquals(OutboxCommand.State.PENDING,
+                outboxRepository.findByCommandId("release-" + pending.getId()).orElseThrow().getState());
+    }
+
+    @Test
+    @Transactional
+    void outboxDispatcher_purgesCommandsSettledLongerThanRetention() {
+        OffsetDateTime later = OffsetDateTime.now().plusHours(1);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Booking booking = bookingRepository.save(pendingBooking());
+            bookingOutbox.enqueue(OutboxCommand.Type.CONFIRM, booking, later);
+            bookings.add(booking);
+        }
+        bookingOutbox.settle(OutboxCommand.Type.CONFIRM, bookings.get(0).getId(), OutboxCommand.State.DELIVERED);
+        bookingOutbox.settle(OutboxCommand.Type.CONFIRM, bookings.get(1).getId(), OutboxCommand.State.FAILED);
+        bookingOutbox.discardPending(OutboxCommand.Type.CONFIRM, bookings.get(2).getId());
+        bookingOutbox.settle(OutboxCommand.Type.CONFIRM, bookings.get(3).getId(), OutboxCommand.State.DELIVERED);
+        outboxRepository.flush();
+        // all but the recently delivered one last changed before the default retention of 7 days
+        for (int i : new int[]{0, 1, 2, 4}) {
+            jdbcTemplate.update("UPDATE booking_outbox SET updated_at = ? WHERE command_id = ?",
+                    OffsetDateTime.now().minusDays(8), "confirm-" + bookings.get(i).getId());
+        }
+
+        outboxDispatcher.purgeSettled();
+
+        assertTrue(outboxRepository.findByCommandId("confirm-" + bookings.get(0).getId()).isEmpty());
+        assertTrue(outboxRepository.findByCommandId("confirm-" + bookings.get(1).getId()).isEmpty());
+        assertTrue(outboxRepository.findByCommandId("confirm-" + bookings.get(2).getId()).isEmpty());
+        assertTrue(outboxRepository.findByCommandId("confirm-" + bookings.get(3).getId()).isPresent());
+        // still to be delivered, however old
+        assertEquals(OutboxCommand.State.PENDING,
+                outboxRepository.findByCommandId("confirm-" + bookings.get(4).getId()).orElseThrow().getState());
+    }
+
+    private static Booking pendingBooking() {
+        return Booking.builder()
+                .userId(1L)
+                .hotelId(1L)
+                .roomId(7L)
+                .startDate(LocalDate.now().plusDays(5))
+                .endDate(LocalDate.now().plusDays(7))
+                .status(Status.PENDING)
+                .build();
+    }
 }
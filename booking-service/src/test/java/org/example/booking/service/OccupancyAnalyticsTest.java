@@ -0,0 +1,142 @@
+package org.example.booking.service;
+
+import org.example.booking.client.HotelClient;
+import org.example.booking.config.AnalyticsProperties;
+import org.example.booking.dto.BookingRequest;
+import org.example.booking.dto.BookingResponse;
+import org.example.booking.dto.OccupancyResponse;
+import org.example.booking.entity.Booking;
+import org.example.booking.entity.Status;
+import org.example.booking.event.BookingChangedEvent;
+import org.example.booking.repository.BookingRepository;
+import org.example.booking.repository.HotelBookingInterval;
+import org.example.booking.repository.OutboxCommandRepository;
+import org.example.booking.repository.RoomVersionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class OccupancyAnalyticsTest {
+
+    @Autowired
+    private OccupancyAnalytics occupancyAnalytics;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RoomVersionRepository roomVersionRepository;
+
+    @Autowired
+    private OutboxCommandRepository outboxRepository;
+
+    @TestConfiguration
+    static class OccupancyAnalyticsTestConfig {
+        @Bean
+        @Primary
+        HotelClient hotelClientMock() {
+            return Mockito.mock(HotelClient.class);
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        roomVersionRepository.deleteAll();
+        outboxRepository.deleteAll();
+        occupancyAnalytics.rebuild();
+    }
+
+    @Test
+    void occupancy_followsCommittedBookingsAndCancellations() {
+        LocalDate today = LocalDate.now();
+        BookingResponse first = bookingService.createBooking(1L, request(1L, 11L, today.plusDays(1), today.plusDays(4)), null);
+        bookingService.createBooking(1L, request(1L, 12L, today.plusDays(3), today.plusDays(5)), null);
+        bookingService.createBooking(1L, request(2L, 21L, today.plusDays(2), today.plusDays(3)), null);
+        assertTrue(occupancyAnalytics.isReady());
+
+        assertEquals(List.of(0L, 1L, 1L, 2L, 1L, 0L), counts(1L, today, today.plusDays(6)));
+        assertEquals(List.of(0L, 1L, 2L, 2L, 1L, 0L), counts(null, today, today.plusDays(6)));
+
+        bookingService.cancelBooking(1L, first.getId());
+
+        assertEquals(List.of(0L, 0L, 0L, 1L, 1L, 0L), counts(1L, today, today.plusDays(6)));
+        assertEquals(List.of(0L, 0L), counts(3L, today, today.plusDays(2)));
+    }
+
+    @Test
+    void occupancy_outsideTheWindowIsReadFromTheDatabase() {
+        LocalDate farAhead = LocalDate.now().plusYears(5);
+        bookingRepository.save(Booking.builder()
+                .userId(1L)
+                .hotelId(1L)
+                .roomId(11L)
+                .startDate(farAhead)
+                .endDate(farAhead.plusDays(2))
+                .status(Status.CONFIRMED)
+                .build());
+
+        assertEquals(List.of(0L, 1L, 1L, 0L), counts(1L, farAhead.minusDays(1), farAhead.plusDays(3)));
+        assertThrows(IllegalArgumentException.class,
+                () -> occupancyAnalytics.occupancy(1L, farAhead, farAhead));
+        assertThrows(IllegalArgumentException.class,
+                () -> occupancyAnalytics.occupancy(1L, farAhead, farAhead.plusYears(4)));
+    }
+
+    @Test
+    void rebuild_reconcilesChangesArrivingDuringTheLoad() {
+        LocalDate today = LocalDate.now();
+        LocalDate start = today.plusDays(1);
+        LocalDate end = today.plusDays(3);
+        BookingRepository repository = Mockito.mock(BookingRepository.class);
+        OccupancyAnalytics analytics = new OccupancyAnalytics(repository, new AnalyticsProperties());
+        Mockito.when(repository.findActiveHotelIntervals(Mockito.isNull(), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenAnswer(invocation -> {
+                    // 1 and 3 were committed before the read, 2 after it; 1 is cancelled after it
+                    analytics.onBookingChanged(event(BookingChangedEvent.Type.CREATED, 2L, start, end));
+                    analytics.onBookingChanged(event(BookingChangedEvent.Type.CANCELLED, 1L, start, end));
+                    analytics.onBookingChanged(event(BookingChangedEvent.Type.CREATED, 3L, start, end));
+                    return List.of(new HotelBookingInterval(1L, 1L, start, end), new HotelBookingInterval(3L, 1L, start, end));
+                });
+
+        analytics.rebuild();
+
+        assertTrue(analytics.isReady());
+        assertEquals(List.of(0L, 2L, 2L, 0L),
+                analytics.occupancy(1L, today, today.plusDays(4)).getDays().stream()
+                        .map(OccupancyResponse.DayOccupancy::getOccupiedRooms)
+                        .toList());
+    }
+
+    private static BookingChangedEvent event(BookingChangedEvent.Type type, Long bookingId, LocalDate start, LocalDate end) {
+        return new BookingChangedEvent(type, bookingId, 1L, bookingId * 10, start, end);
+    }
+
+    private List<Long> counts(Long hotelId, LocalDate from, LocalDate to) {
+        OccupancyResponse response = occupancyAnalytics.occupancy(hotelId, from, to);
+        return response.getDays().stream().map(OccupancyResponse.DayOccupancy::getOccupiedRooms).toList();
+    }
+
+    private static BookingRequest request(Long hotelId, Long roomId, LocalDate start, LocalDate end) {
+        BookingRequest request = new BookingRequest();
+        request.setHotelId(hotelId);
+        request.setRoomId(roomId);
+        request.setStartDate(start);
+        request.setEndDate(end);
+        return request;
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.booking.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OccupancyCurveTest {
+
+    @Test
+    void occupancy_countsBookingsActiveOnEachDay() {
+        OccupancyCurve curve = new OccupancyCurve(100, 20);
+        curve.add(102, 105, 1);
+        curve.add(104, 106, 1);
+        curve.add(110, 111, 1);
+
+        assertArrayEquals(new long[]{0, 0, 1, 1, 2, 1, 0, 0, 0, 0, 1, 0},
+                curve.occupancy(100, 112));
+        assertArrayEquals(new long[]{2, 1}, curve.occupancy(104, 106));
+    }
+
+    @Test
+    void add_clipsBookingsToTheWindowAndRemovesWithNegativeCount() {
+        OccupancyCurve curve = new OccupancyCurve(100, 5);
+        curve.add(90, 102, 1);
+        curve.add(103, 200, 1);
+        curve.add(50, 60, 1);
+        curve.add(103, 200, -1);
+
+        assertArrayEquals(new long[]{1, 1, 0, 0, 0}, curve.occupancy(100, 105));
+        assertTrue(curve.covers(100, 105));
+        assertFalse(curve.covers(99, 101));
+        assertFalse(curve.covers(104, 106));
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.booking.service;
+
+import org.example.booking.config.AdmissionProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoomLockStripesTest {
+
+    @Test
+    void stripeCount_isRoundedUpToPowerOfTwo() {
+        assertEquals(64, stripes(40, Duration.ofMillis(50)).stripeCount());
+        assertEquals(64, stripes(64, Duration.ofMillis(50)).stripeCount());
+    }
+
+    @Test
+    void withRoomLock_failsFastWhileRoomIsHeld() throws Exception {
+        RoomLockStripes locks = stripes(16, Duration.ofMillis(50));
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> locks.withRoomLock(7L, () -> {
+            held.countDown();
+            await(release);
+            return null;
+        }));
+        assertTrue(held.await(5, TimeUnit.SECONDS));
+
+        long startedAt = System.nanoTime();
+        assertThrows(IllegalStateException.class, () -> locks.withRoomLock(7L, () -> "booked"));
+        assertTrue(System.nanoTime() - startedAt < TimeUnit.SECONDS.toNanos(2));
+
+        Long otherRoom = otherStripeRoom(locks, 7L);
+        assertEquals("booked", locks.withRoomLock(otherRoom, () -> "booked"));
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        assertEquals("booked", locks.withRoomLock(7L, () -> "booked"));
+    }
+
+    private static RoomLockStripes stripes(int count, Duration timeout) {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setStripes(count);
+        properties.setLockTimeout(timeout);
+        return new RoomLockStripes(properties);
+    }
+
+    private static Long otherStripeRoom(RoomLockStripes locks, Long roomId) {
+        long candidate = roomId + 1;
+        while (locks.stripe(candidate) == locks.stripe(roomId)) {
+            candidate++;
+        }
+        return candidate;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
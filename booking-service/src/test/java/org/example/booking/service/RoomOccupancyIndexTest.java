@@ -0,0 +1,192 @@
+package org.example.booking.service;
+
+import org.example.booking.client.HotelClient;
+import org.example.booking.config.AvailabilityProperties;
+import org.example.booking.dto.BookingRequest;
+import org.example.booking.dto.BookingResponse;
+import org.example.booking.entity.Booking;
+import org.example.booking.entity.Status;
+import org.example.booking.event.BookingChangedEvent;
+import org.example.booking.repository.BookingInterval;
+import org.example.booking.repository.BookingRepository;
+import org.example.booking.repository.OutboxCommandRepository;
+import org.example.booking.repository.RoomVersionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class RoomOccupancyIndexTest {
+
+    @Autowired
+    private RoomOccupancyIndex occupancyIndex;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RoomVersionRepository roomVersionRepository;
+
+    @Autowired
+    private OutboxCommandRepository outboxRepository;
+
+    @TestConfiguration
+    static class RoomOccupancyIndexTestConfig {
+        @Bean
+        @Primary
+        HotelClient hotelClientMock() {
+            return Mockito.mock(HotelClient.class);
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        roomVersionRepository.deleteAll();
+        outboxRepository.deleteAll();
+        occupancyIndex.rebuild();
+    }
+
+    @Test
+    void index_followsCommittedBookingsAndCancellations() {
+        LocalDate start = LocalDate.now().plusDays(5);
+        LocalDate end = LocalDate.now().plusDays(8);
+        assertTrue(occupancyIndex.canAnswer(start));
+        assertTrue(occupancyIndex.isFree(7L, start, end));
+
+        BookingRequest request = new BookingRequest();
+        request.setHotelId(1L);
+        request.setRoomId(7L);
+        request.setStartDate(start);
+        request.setEndDate(end);
+        BookingResponse created = bookingService.createBooking(1L, request, null);
+
+        assertFalse(occupancyIndex.isFree(7L, start, end));
+        assertFalse(occupancyIndex.isFree(7L, end.minusDays(1), end.plusDays(2)));
+        assertTrue(occupancyIndex.isFree(7L, end, end.plusDays(2)));
+        assertTrue(occupancyIndex.isFree(7L, start.minusDays(2), start));
+        assertTrue(occupancyIndex.isFree(8L, start, end));
+
+        bookingService.cancelBooking(1L, created.getId());
+
+        assertTrue(occupancyIndex.isFree(7L, start, end));
+    }
+
+    @Test
+    void verify_rebuildsIndexThatMissedDatabaseWrites() {
+        LocalDate start = LocalDate.now().plusDays(20);
+        LocalDate end = LocalDate.now().plusDays(22);
+        bookingRepository.save(Booking.builder()
+                .userId(1L)
+                .hotelId(1L)
+                .roomId(9L)
+                .startDate(start)
+                .endDate(end)
+                .status(Status.CONFIRMED)
+                .build());
+        assertTrue(occupancyIndex.isFree(9L, start, end));
+
+        occupancyIndex.verify();
+
+        assertTrue(occupancyIndex.canAnswer(start));
+        assertFalse(occupancyIndex.isFree(9L, start, end));
+    }
+
+    @Test
+    void rebuild_reconcilesChangesArrivingDuringTheLoad() {
+        LocalDate start = LocalDate.now().plusDays(5);
+        LocalDate end = LocalDate.now().plusDays(8);
+        BookingRepository repository = Mockito.mock(BookingRepository.class);
+        RoomOccupancyIndex index = new RoomOccupancyIndex(repository, new AvailabilityProperties());
+        Mockito.when(repository.findActiveIntervalsEndingAfter(Mockito.any(), Mockito.any())).thenAnswer(invocation -> {
+            // 1 and 3 were committed before the read, 2 after it; 1 is cancelled after it
+            index.onBookingChanged(event(BookingChangedEvent.Type.CREATED, 2L, 20L, start, end));
+            index.onBookingChanged(event(BookingChangedEvent.Type.CANCELLED, 1L, 10L, start, end));
+            index.onBookingChanged(event(BookingChangedEvent.Type.CREATED, 3L, 30L, start, end));
+            return List.of(new BookingInterval(1L, 10L, start, end), new BookingInterval(3L, 30L, start, end));
+        });
+
+        index.rebuild();
+
+        assertTrue(index.canAnswer(start));
+        assertTrue(index.isFree(10L, start, end));
+        assertFalse(index.isFree(20L, start, end));
+        assertFalse(index.isFree(30L, start, end));
+        // booking 3 is in the index once, not once from the load and once from the replay
+        index.onBookingChanged(event(BookingChangedEvent.Type.CANCELLED, 3L, 30L, start, end));
+        assertTrue(index.isFree(30L, start, end));
+    }
+
+    @Test
+    void rebuild_succeedsWhileBookingsAreWritten() throws Exception {
+        LocalDate start = LocalDate.now().plusDays(30);
+        LocalDate end = LocalDate.now().plusDays(32);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<Long> cancelledRooms = new CopyOnWriteArrayList<>();
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        Future<Integer> written = writer.submit(() -> {
+            int count = 0;
+            for (long roomId = 100; writing.get() || count < 20; roomId++, count++) {
+                BookingRequest request = new BookingRequest();
+                request.setHotelId(1L);
+                request.setRoomId(roomId);
+                request.setStartDate(start);
+                request.setEndDate(end);
+                BookingResponse created = bookingService.createBooking(1L, request, null);
+                if (roomId % 3 == 0) {
+                    bookingService.cancelBooking(1L, created.getId());
+                    cancelledRooms.add(roomId);
+                }
+            }
+            return count;
+        });
+        try {
+            for (int i = 0; i < 10; i++) {
+                occupancyIndex.rebuild();
+                assertTrue(occupancyIndex.canAnswer(start));
+            }
+        } finally {
+            writing.set(false);
+        }
+        int count = written.get(30, TimeUnit.SECONDS);
+        writer.shutdown();
+
+        for (long roomId = 100; roomId < 100 + count; roomId++) {
+            assertEquals(cancelledRooms.contains(roomId), occupancyIndex.isFree(roomId, start, end), "room " + roomId);
+        }
+        assertTrue(occupancyIndex.isReady());
+    }
+
+    @Test
+    void canAnswer_isFalseForPastDatesAndWhileStale() {
+        assertFalse(occupancyIndex.canAnswer(LocalDate.now().minusDays(1)));
+
+        occupancyIndex.markStale();
+
+        assertFalse(occupancyIndex.canAnswer(LocalDate.now().plusDays(1)));
+    }
+
+    private static BookingChangedEvent event(BookingChangedEvent.Type type, Long bookingId, Long roomId,
+                                             LocalDate start, LocalDate end) {
+        return new BookingChangedEvent(type, bookingId, 1L, roomId, start, end);
+    }
+}
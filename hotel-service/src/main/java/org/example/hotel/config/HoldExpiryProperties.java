@@ -0,0 +1,35 @@
+package org.example.hotel.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "hotel.holds.expiry")
+public class HoldExpiryProperties {
+
+    /**
+     * Resolution of the expiry wheel and interval of the sweep; a hold is cleared at most one tick late.
+     */
+    private Duration tick = Duration.ofSeconds(1);
+
+    /**
+     * Slots in the wheel, rounded up to a power of two. Holds further out than one revolution
+     * simply wait in their slot for extra rounds.
+     */
+    private int wheelSize = 512;
+
+    /**
+     * Max holds deleted by one statement.
+     */
+    private int batchSize = 500;
+
+    /**
+     * How often expired holds the wheel doesn't know about (written by other instances, or before a
+     * restart) are deleted straight from the database.
+     */
+    private Duration reconcileInterval = Duration.ofMinutes(1);
+}
@@ -5,8 +5,12 @@ import lombok.RequiredArgsConstructor;
 import org.example.hotel.dto.request.ConfirmAvailabilityRequest;
 import org.example.hotel.dto.request.HotelDTORequest;
 import org.example.hotel.dto.request.ReleaseRequest;
+import org.example.hotel.dto.request.RoomConfirmCommand;
 import org.example.hotel.dto.request.RoomDTORequest;
+import org.example.hotel.dto.request.RoomReleaseCommand;
 import org.example.hotel.dto.response.HotelResponseDTO;
+import org.example.hotel.dto.response.RoomCommandResult;
+import org.example.hotel.dto.response.RoomPage;
 import org.example.hotel.dto.response.RoomResponseDTO;
 import org.example.hotel.dto.response.RoomStatsResponse;
 import org.example.hotel.service.HotelService;
@@ -20,6 +24,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class HotelController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final HotelService hotelService;
 
     @PostMapping("/hotels")
@@ -43,13 +49,17 @@ public class HotelController {
     }
 
     @GetMapping("/rooms")
-    public ResponseEntity<List<RoomResponseDTO>> getAllAvailableRooms() {
-        return ResponseEntity.ok(hotelService.getAllAvailableRooms());
+    public ResponseEntity<List<RoomResponseDTO>> getAllAvailableRooms(@RequestParam(required = false) Long hotelId,
+                                                                      @RequestParam(required = false) Integer limit,
+                                                                      @RequestParam(required = false) String cursor) {
+        return pageResponse(hotelService.getAllAvailableRooms(hotelId, limit, cursor));
     }
 
     @GetMapping("/rooms/recommend")
-    public ResponseEntity<List<RoomResponseDTO>> getRecommendedRooms() {
-        return ResponseEntity.ok(hotelService.getRecommendedRooms());
+    public ResponseEntity<List<RoomResponseDTO>> getRecommendedRooms(@RequestParam(required = false) Long hotelId,
+                                                                     @RequestParam(required = false) Integer limit,
+                                                                     @RequestParam(required = false) String cursor) {
+        return pageResponse(hotelService.getRecommendedRooms(hotelId, limit, cursor));
     }
 
     @GetMapping("/hotels/stats/rooms")
@@ -70,4 +80,22 @@ public class HotelController {
         hotelService.releaseRoom(id, request);
         return ResponseEntity.ok().build();
     }
+
+    @PostMapping("/rooms/confirm-availability/batch")
+    public ResponseEntity<List<RoomCommandResult>> confirmRoomsAvailability(@RequestBody List<RoomConfirmCommand> commands) {
+        return ResponseEntity.ok(hotelService.confirmRoomsAvailability(commands));
+    }
+
+    @PostMapping("/rooms/release/batch")
+    public ResponseEntity<List<RoomCommandResult>> releaseRooms(@RequestBody List<RoomReleaseCommand> commands) {
+        return ResponseEntity.ok(hotelService.releaseRooms(commands));
+    }
+
+    private static ResponseEntity<List<RoomResponseDTO>> pageResponse(RoomPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
 }
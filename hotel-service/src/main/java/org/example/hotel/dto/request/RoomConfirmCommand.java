@@ -0,0 +1,23 @@
+package org.example.hotel.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One entry of a batch confirm-availability request.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomConfirmCommand {
+
+    private Long roomId;
+    private String bookingId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+}
@@ -0,0 +1,19 @@
+package org.example.hotel.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of a batch release request.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomReleaseCommand {
+
+    private Long roomId;
+    private String bookingId;
+}
@@ -0,0 +1,27 @@
+package org.example.hotel.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one command of a batch, in request order.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomCommandResult {
+
+    private Long roomId;
+    private String bookingId;
+    private boolean success;
+    private String error;
+
+    public static RoomCommandResult ok(Long roomId, String bookingId) {
+        return new RoomCommandResult(roomId, bookingId, true, null);
+    }
+
+    public static RoomCommandResult failed(Long roomId, String bookingId, String error) {
+        return new RoomCommandResult(roomId, bookingId, false, error);
+    }
+}
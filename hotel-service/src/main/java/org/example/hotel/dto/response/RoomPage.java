@@ -0,0 +1,18 @@
+package org.example.hotel.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class RoomPage {
+
+    private List<RoomResponseDTO> items;
+
+    /**
+     * Opaque cursor of the next page, {@code null} on the last page.
+     */
+    private String nextCursor;
+}
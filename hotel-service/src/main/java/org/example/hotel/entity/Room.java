@@ -1,7 +1,5 @@
 package org.example.hotel.entity;
 
-import java.time.OffsetDateTime;
-
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -11,7 +9,13 @@ import lombok.*;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "rooms")
+@Table(
+        name = "rooms",
+        indexes = {
+                @Index(name = "idx_rooms_hotel_available", columnList = "hotel_id, available, id"),
+                @Index(name = "idx_rooms_available_rank", columnList = "available, times_booked, id")
+        }
+)
 public class Room {
 
     @Id
@@ -31,11 +35,4 @@ public class Room {
     @Column(nullable = false)
     private Long times_booked;
 
-    @Column(name ="last_booking_id")
-    private String lastBookingId;
-
-    @Column(name = "hold_until")
-    private OffsetDateTime holdUntil;
-
-
 }
@@ -0,0 +1,47 @@
+package org.example.hotel.entity;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * A booking's temporary claim on a room for the stay [startDate, endDate). A room can carry any
+ * number of holds as long as the active ones don't overlap; an expired hold no longer blocks anyone.
+ */
+@Setter
+@Getter
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(
+        name = "room_holds",
+        uniqueConstraints = @UniqueConstraint(name = "uk_room_holds_booking", columnNames = {"room_id", "booking_id"}),
+        indexes = {
+                @Index(name = "idx_room_holds_room_dates", columnList = "room_id, start_date, end_date"),
+                @Index(name = "idx_room_holds_hold_until", columnList = "hold_until")
+        }
+)
+public class RoomHold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "room_id", nullable = false)
+    private Long roomId;
+
+    @Column(name = "booking_id", nullable = false)
+    private String bookingId;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate;
+
+    @Column(name = "hold_until", nullable = false)
+    private OffsetDateTime holdUntil;
+}
@@ -0,0 +1,22 @@
+package org.example.hotel.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * One row per room that confirms lock while they check and place holds on it, so holds of one room
+ * are placed one after another without locking the room's own row, which listings read and counter
+ * flushes update.
+ */
+@Setter
+@Getter
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "room_hold_locks")
+public class RoomHoldLock {
+
+    @Id
+    @Column(name = "room_id")
+    private Long roomId;
+}
@@ -0,0 +1,9 @@
+package org.example.hotel.repository;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Expiry of one hold, read without hydrating the {@code RoomHold} entity.
+ */
+public record HoldExpiry(Long id, Long roomId, OffsetDateTime holdUntil) {
+}
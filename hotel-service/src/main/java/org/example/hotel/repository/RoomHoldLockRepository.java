@@ -0,0 +1,27 @@
+package org.example.hotel.repository;
+
+import org.example.hotel.entity.RoomHoldLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface RoomHoldLockRepository extends JpaRepository<RoomHoldLock, Long> {
+
+    /**
+     * Locks the room's hold lock row until commit, empty if the room has none.
+     */
+    @Query(value = "SELECT room_id FROM room_hold_locks WHERE room_id = :roomId FOR UPDATE", nativeQuery = true)
+    Optional<Long> lock(@Param("roomId") Long roomId);
+
+    /**
+     * Locks the hold lock rows of a batch confirm for the rest of the transaction. Rows are locked in
+     * id order so two overlapping batches can't deadlock.
+     */
+    @Query(value = "SELECT room_id FROM room_hold_locks WHERE room_id IN (:roomIds) ORDER BY room_id FOR UPDATE",
+            nativeQuery = true)
+    List<Long> lockAll(@Param("roomIds") Collection<Long> roomIds);
+}
@@ -0,0 +1,48 @@
+package org.example.hotel.repository;
+
+import org.example.hotel.entity.RoomHold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface RoomHoldRepository extends JpaRepository<RoomHold, Long> {
+
+    Optional<RoomHold> findByRoomIdAndBookingId(Long roomId, String bookingId);
+
+    List<RoomHold> findByRoomIdOrderByStartDate(Long roomId);
+
+    /**
+     * Whether another booking holds an overlapping stay on the room that hasn't expired yet.
+     */
+    @Query("SELECT COUNT(h) > 0 FROM RoomHold h " +
+           "WHERE h.roomId = :roomId AND h.bookingId <> :bookingId " +
+           "AND h.holdUntil > :now " +
+           "AND h.startDate < :endDate AND h.endDate > :startDate")
+    boolean existsActiveOverlap(@Param("roomId") Long roomId,
+                                @Param("bookingId") String bookingId,
+                                @Param("startDate") LocalDate startDate,
+                                @Param("endDate") LocalDate endDate,
+                                @Param("now") OffsetDateTime now);
+
+    @Query("SELECT new org.example.hotel.repository.HoldExpiry(h.id, h.roomId, h.holdUntil) " +
+           "FROM RoomHold h WHERE h.holdUntil > :now")
+    List<HoldExpiry> findActiveExpiries(@Param("now") OffsetDateTime now);
+
+    /**
+     * Deletes the given holds if they have really expired; a hold renewed since it was scheduled is kept.
+     */
+    @Modifying
+    @Query("DELETE FROM RoomHold h WHERE h.id IN :ids AND h.holdUntil <= :now")
+    int deleteExpired(@Param("ids") Collection<Long> ids, @Param("now") OffsetDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM RoomHold h WHERE h.holdUntil <= :now")
+    int deleteAllExpired(@Param("now") OffsetDateTime now);
+}
@@ -0,0 +1,11 @@
+package org.example.hotel.repository;
+
+/**
+ * Available room as ranked by {@code /rooms/recommend}, read without hydrating the {@code Room} entity.
+ */
+public record RoomRank(Long id, Long hotelId, String number, long timesBooked) {
+
+    public RoomRank withTimesBooked(long value) {
+        return new RoomRank(id, hotelId, number, value);
+    }
+}
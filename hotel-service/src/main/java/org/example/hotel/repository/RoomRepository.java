@@ -1,19 +1,51 @@
 package org.example.hotel.repository;
 
 import org.example.hotel.entity.Room;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RoomRepository extends JpaRepository<Room, Long> {
-    
-    List<Room> findByAvailableTrue();
-    
-    @Query("SELECT r FROM Room r WHERE r.available = true ORDER BY r.times_booked ASC")
-    List<Room> findRecommendedRooms();
-    
+
     List<Room> findByHotelId(Long hotelId);
+
+    @Query("SELECT new org.example.hotel.repository.RoomRank(r.id, r.hotel.id, r.number, r.times_booked) " +
+           "FROM Room r WHERE r.available = true")
+    List<RoomRank> findAvailableRanks();
+
+    @Query("SELECT new org.example.hotel.repository.RoomStatsRow(r.id, r.hotel.id, r.available, r.times_booked) " +
+           "FROM Room r")
+    List<RoomStatsRow> findStatsRows();
+
+    /**
+     * The room's {@code available} flag, empty if there is no such room.
+     */
+    @Query("SELECT r.available FROM Room r WHERE r.id = :id")
+    Optional<Boolean> findAvailability(@Param("id") Long id);
+
+    @Query("SELECT new org.example.hotel.repository.RoomRow(r.id, r.hotel.id, r.number, r.available, r.times_booked) " +
+           "FROM Room r WHERE r.available = true " +
+           "AND (:hotelId IS NULL OR r.hotel.id = :hotelId) " +
+           "AND r.id > :afterId " +
+           "ORDER BY r.id ASC")
+    List<RoomRow> findAvailablePage(@Param("hotelId") Long hotelId,
+                                    @Param("afterId") long afterId,
+                                    Limit limit);
+
+    @Query("SELECT new org.example.hotel.repository.RoomRow(r.id, r.hotel.id, r.number, r.available, r.times_booked) " +
+           "FROM Room r WHERE r.available = true " +
+           "AND (:hotelId IS NULL OR r.hotel.id = :hotelId) " +
+           "AND (r.times_booked > :afterTimesBooked " +
+           "     OR (r.times_booked = :afterTimesBooked AND r.id > :afterId)) " +
+           "ORDER BY r.times_booked ASC, r.id ASC")
+    List<RoomRow> findRecommendedPage(@Param("hotelId") Long hotelId,
+                                      @Param("afterTimesBooked") long afterTimesBooked,
+                                      @Param("afterId") long afterId,
+                                      Limit limit);
 }
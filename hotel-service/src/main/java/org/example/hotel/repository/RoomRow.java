@@ -0,0 +1,8 @@
+package org.example.hotel.repository;
+
+/**
+ * Room as listed by {@code /rooms} and {@code /rooms/recommend}, read without hydrating the {@code Room}
+ * entity and its hotel.
+ */
+public record RoomRow(Long id, Long hotelId, String number, Boolean available, long timesBooked) {
+}
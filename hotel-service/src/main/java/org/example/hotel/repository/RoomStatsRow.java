@@ -0,0 +1,7 @@
+package org.example.hotel.repository;
+
+/**
+ * Columns of a room that feed the per-hotel statistics, read without hydrating the {@code Room} entity.
+ */
+public record RoomStatsRow(Long id, Long hotelId, Boolean available, long timesBooked) {
+}
@@ -0,0 +1,129 @@
+package org.example.hotel.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.hotel.config.HoldExpiryProperties;
+import org.example.hotel.entity.RoomHold;
+import org.example.hotel.repository.HoldExpiry;
+import org.example.hotel.repository.RoomHoldRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clears room holds when they expire. Every hold written by this instance is scheduled in a
+ * {@link HoldExpiryWheel}; each tick the sweep collects the due holds and deletes them in batches.
+ * Holds the wheel doesn't know about (written by another instance, or before a restart) are
+ * caught by a periodic database-wide cleanup.
+ * <p>
+ * Metrics: {@code hotel.holds.active} (holds scheduled to expire), {@code hotel.holds.expired}
+ * (holds cleared) and {@code hotel.holds.sweep.lag} (how long after its deadline a hold was cleared).
+ */
+@Slf4j
+@Component
+public class HoldExpiryScheduler {
+
+    private final RoomHoldRepository holdRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final HoldExpiryProperties properties;
+    private final Clock clock;
+    private final HoldExpiryWheel wheel;
+    private final Counter expired;
+    private final Timer sweepLag;
+
+    @Autowired
+    public HoldExpiryScheduler(RoomHoldRepository holdRepository,
+                               TransactionTemplate transactionTemplate,
+                               HoldExpiryProperties properties,
+                               MeterRegistry meterRegistry) {
+        this(holdRepository, transactionTemplate, properties, meterRegistry, Clock.systemUTC());
+    }
+
+    HoldExpiryScheduler(RoomHoldRepository holdRepository,
+                        TransactionTemplate transactionTemplate,
+                        HoldExpiryProperties properties,
+                        MeterRegistry meterRegistry,
+                        Clock clock) {
+        this.holdRepository = holdRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.clock = clock;
+        this.wheel = new HoldExpiryWheel(properties.getTick().toMillis(), properties.getWheelSize(), clock.millis());
+        Gauge.builder("hotel.holds.active", wheel, HoldExpiryWheel::size)
+                .description("Room holds scheduled to expire on this instance")
+                .register(meterRegistry);
+        this.expired = Counter.builder("hotel.holds.expired")
+                .description("Expired room holds cleared")
+                .register(meterRegistry);
+        this.sweepLag = Timer.builder("hotel.holds.sweep.lag")
+                .description("Delay between a hold's expiry and its removal")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Called for every new or renewed hold. If the surrounding transaction rolls back the entry
+     * stays scheduled, which is harmless: the sweep only deletes holds that really have expired.
+     */
+    public void schedule(RoomHold hold) {
+        wheel.schedule(hold.getId(), hold.getRoomId(), hold.getHoldUntil().toInstant().toEpochMilli());
+    }
+
+    public void cancel(RoomHold hold) {
+        wheel.cancel(hold.getId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        List<HoldExpiry> active = holdRepository.findActiveExpiries(OffsetDateTime.now(clock));
+        active.forEach(h -> wheel.schedule(h.id(), h.roomId(), h.holdUntil().toInstant().toEpochMilli()));
+        log.info("Scheduled expiry of {} active room holds", active.size());
+    }
+
+    @Scheduled(fixedDelayString = "${hotel.holds.expiry.tick:PT1S}")
+    public void sweep() {
+        long now = clock.millis();
+        List<HoldExpiryWheel.Expiry> due = wheel.advance(now);
+        if (due.isEmpty()) {
+            return;
+        }
+        OffsetDateTime cutoff = OffsetDateTime.now(clock);
+        int batchSize = properties.getBatchSize();
+        int deleted = 0;
+        try {
+            for (int from = 0; from < due.size(); from += batchSize) {
+                List<Long> ids = due.subList(from, Math.min(from + batchSize, due.size())).stream()
+                        .map(HoldExpiryWheel.Expiry::holdId)
+                        .toList();
+                deleted += transactionTemplate.execute(status -> holdRepository.deleteExpired(ids, cutoff));
+            }
+        } catch (RuntimeException ex) {
+            // the rows are left for the reconcile run
+            log.warn("Hold expiry sweep failed: {}", ex.getMessage());
+        }
+        expired.increment(deleted);
+        long oldestDeadline = due.stream().mapToLong(HoldExpiryWheel.Expiry::deadlineMillis).min().orElse(now);
+        sweepLag.record(Math.max(0, now - oldestDeadline), TimeUnit.MILLISECONDS);
+    }
+
+    @Scheduled(fixedDelayString = "${hotel.holds.expiry.reconcile-interval:PT1M}",
+            initialDelayString = "${hotel.holds.expiry.reconcile-interval:PT1M}")
+    public void reconcile() {
+        Integer deleted = transactionTemplate.execute(status ->
+                holdRepository.deleteAllExpired(OffsetDateTime.now(clock)));
+        if (deleted != null && deleted > 0) {
+            log.info("Removed {} expired room holds not scheduled on this instance", deleted);
+            expired.increment(deleted);
+        }
+    }
+}
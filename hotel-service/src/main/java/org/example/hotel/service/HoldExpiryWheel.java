@@ -0,0 +1,136 @@
+package org.example.hotel.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hashed timing wheel of hold expirations.
+ * <p>
+ * {@link #schedule} and {@link #cancel} are O(1) and may be called from any thread: new entries go to
+ * a lock-free inbox and are only placed into their slot by {@link #advance}, which must be called from
+ * a single thread. A slot holds every entry whose deadline tick maps to it; entries more than one
+ * revolution away stay in the slot until their own tick comes around. Rescheduling a hold cancels its
+ * previous entry, and cancelled entries are dropped when their slot is visited.
+ */
+final class HoldExpiryWheel {
+
+    record Expiry(long holdId, long roomId, long deadlineMillis) {
+    }
+
+    private static final class Entry {
+        final long holdId;
+        final long roomId;
+        final long deadlineMillis;
+        final long deadlineTick;
+        volatile boolean cancelled;
+
+        Entry(long holdId, long roomId, long deadlineMillis, long deadlineTick) {
+            this.holdId = holdId;
+            this.roomId = roomId;
+            this.deadlineMillis = deadlineMillis;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+
+    private final long tickMillis;
+    private final int mask;
+    private final Queue<Entry>[] slots;
+    private final Queue<Entry> inbox = new ConcurrentLinkedQueue<>();
+    private final Map<Long, Entry> byHold = new ConcurrentHashMap<>();
+
+    /**
+     * Next tick {@link #advance} will process. Only written by the advancing thread.
+     */
+    private long nextTick;
+
+    @SuppressWarnings("unchecked")
+    HoldExpiryWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.slots = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new ArrayDeque<>();
+        }
+        this.nextTick = startMillis / tickMillis;
+    }
+
+    int slotCount() {
+        return slots.length;
+    }
+
+    /**
+     * Number of holds waiting to expire.
+     */
+    int size() {
+        return byHold.size();
+    }
+
+    void schedule(long holdId, long roomId, long deadlineMillis) {
+        // round up so a hold never fires before its deadline
+        long deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        Entry entry = new Entry(holdId, roomId, deadlineMillis, deadlineTick);
+        Entry previous = byHold.put(holdId, entry);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        inbox.add(entry);
+    }
+
+    void cancel(long holdId) {
+        Entry entry = byHold.remove(holdId);
+        if (entry != null) {
+            entry.cancelled = true;
+        }
+    }
+
+    /**
+     * Moves the wheel up to {@code nowMillis} and returns every hold whose deadline has passed.
+     * After a pause longer than one revolution each slot is visited once, not once per missed tick.
+     */
+    List<Expiry> advance(long nowMillis) {
+        long currentTick = nowMillis / tickMillis;
+        List<Expiry> expired = new ArrayList<>();
+        Entry incoming;
+        while ((incoming = inbox.poll()) != null) {
+            if (incoming.cancelled) {
+                continue;
+            }
+            if (incoming.deadlineTick <= currentTick) {
+                fire(incoming, expired);
+            } else {
+                slots[(int) (incoming.deadlineTick & mask)].add(incoming);
+            }
+        }
+        long lastTick = Math.min(currentTick, nextTick + mask);
+        for (long tick = nextTick; tick <= lastTick; tick++) {
+            Iterator<Entry> it = slots[(int) (tick & mask)].iterator();
+            while (it.hasNext()) {
+                Entry entry = it.next();
+                if (entry.cancelled) {
+                    it.remove();
+                } else if (entry.deadlineTick <= currentTick) {
+                    it.remove();
+                    fire(entry, expired);
+                }
+            }
+        }
+        nextTick = Math.max(nextTick, currentTick + 1);
+        return expired;
+    }
+
+    private void fire(Entry entry, List<Expiry> expired) {
+        if (byHold.remove(entry.holdId, entry)) {
+            expired.add(new Expiry(entry.holdId, entry.roomId, entry.deadlineMillis));
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package org.example.hotel.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.hotel.repository.RoomRepository;
+import org.example.hotel.repository.RoomStatsRow;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-hotel room totals kept up to date in memory, so a stats call is one map lookup whatever the
+ * number of rooms.
+ * <p>
+ * Room creation is applied as it commits, and every room {@link RoomPopularityCounters} reports is
+ * recounted: its times booked is the persisted count minus this instance's flushed increments at load
+ * time plus {@link RoomPopularityCounters#counted(Long)}, and the difference goes to its hotel. The
+ * totals are loaded on startup and rebuilt every {@code hotel.stats.refresh-interval}, which picks up
+ * changes made by other instances and logs hotels whose totals had to be corrected.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HotelRoomStats {
+
+    record Totals(long totalRooms, long availableRooms, long timesBooked) {
+
+        static final Totals EMPTY = new Totals(0, 0, 0);
+
+        Totals plus(Totals other) {
+            return new Totals(totalRooms + other.totalRooms,
+                    availableRooms + other.availableRooms,
+                    timesBooked + other.timesBooked);
+        }
+    }
+
+    private final RoomRepository roomRepository;
+    private final RoomPopularityCounters popularity;
+
+    /**
+     * Changes hold the read lock (each room and hotel entry is updated atomically through
+     * {@code compute}/{@code merge}), swapping in rebuilt totals holds the write lock.
+     */
+    private final ReentrantReadWriteLock structureLock = new ReentrantReadWriteLock();
+
+    /**
+     * Serializes rebuilds: the startup load and the scheduled one may overlap.
+     */
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot = new Snapshot();
+    private volatile boolean ready;
+
+    /**
+     * Changes to record while a rebuild is loading, {@code null} otherwise. Set and cleared under the
+     * write lock, read under the read lock.
+     */
+    private RebuildDeltas<RoomStatsRow> rebuildDeltas;
+
+    @PostConstruct
+    void subscribe() {
+        popularity.addListener(this::recount);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Totals of the hotel, empty if no room of it is known yet.
+     */
+    Optional<Totals> get(Long hotelId) {
+        return Optional.ofNullable(snapshot.byHotel.get(hotelId));
+    }
+
+    /**
+     * Counts a newly created room once its transaction commits.
+     */
+    void roomCreated(Long roomId, Long hotelId, boolean available, long timesBooked) {
+        RoomStatsRow room = new RoomStatsRow(roomId, hotelId, available, timesBooked);
+        Runnable apply = () -> {
+            structureLock.readLock().lock();
+            try {
+                if (rebuildDeltas != null) {
+                    rebuildDeltas.roomCreated(roomId, room);
+                }
+                add(snapshot, room);
+            } finally {
+                structureLock.readLock().unlock();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    void recount(Long roomId) {
+        structureLock.readLock().lock();
+        try {
+            if (rebuildDeltas != null) {
+                rebuildDeltas.roomCounted(roomId);
+            }
+            recount(snapshot, roomId);
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the room to {@code target} unless it is there already, {@code persisted} carrying its times
+     * booked as read from the database.
+     */
+    private void add(Snapshot target, RoomStatsRow persisted) {
+        long base = persisted.timesBooked() - popularity.flushed(persisted.id());
+        target.rooms.computeIfAbsent(persisted.id(), id -> {
+            long timesBooked = base + popularity.counted(id);
+            target.byHotel.merge(persisted.hotelId(),
+                    new Totals(1, Boolean.TRUE.equals(persisted.available()) ? 1 : 0, timesBooked), Totals::plus);
+            return new RoomCount(persisted.hotelId(), base, timesBooked);
+        });
+    }
+
+    private void recount(Snapshot target, Long roomId) {
+        target.rooms.computeIfPresent(roomId, (id, room) -> {
+            long timesBooked = room.base() + popularity.counted(id);
+            if (timesBooked == room.timesBooked()) {
+                return room;
+            }
+            target.byHotel.merge(room.hotelId(), new Totals(0, 0, timesBooked - room.timesBooked()), Totals::plus);
+            return new RoomCount(room.hotelId(), room.base(), timesBooked);
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Recomputes the totals from the database and replaces the live ones, logging hotels whose live
+     * totals disagreed. The load runs with no counter flush in progress; rooms created or counted while
+     * it runs are recorded and reconciled with it before the swap, so a rebuild succeeds under any load.
+     */
+    @Scheduled(fixedDelayString = "${hotel.stats.refresh-interval:PT5M}",
+            initialDelayString = "${hotel.stats.refresh-interval:PT5M}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            RebuildDeltas<RoomStatsRow> deltas = new RebuildDeltas<>();
+            setRebuildDeltas(deltas);
+            try {
+                Snapshot loaded = popularity.withoutFlush(this::load);
+
+                structureLock.writeLock().lock();
+                try {
+                    deltas.replay(loaded.rooms.keySet(), room -> add(loaded, room), roomId -> recount(loaded, roomId));
+                    if (ready) {
+                        verify(loaded);
+                    }
+                    snapshot = loaded;
+                    ready = true;
+                    rebuildDeltas = null;
+                } finally {
+                    structureLock.writeLock().unlock();
+                }
+            } finally {
+                setRebuildDeltas(null);
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private Snapshot load() {
+        Snapshot loaded = new Snapshot();
+        for (RoomStatsRow room : roomRepository.findStatsRows()) {
+            add(loaded, room);
+        }
+        return loaded;
+    }
+
+    private void setRebuildDeltas(RebuildDeltas<RoomStatsRow> deltas) {
+        structureLock.writeLock().lock();
+        try {
+            rebuildDeltas = deltas;
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    private void verify(Snapshot loaded) {
+        Map<Long, Totals> live = new HashMap<>(snapshot.byHotel);
+        loaded.byHotel.forEach((hotelId, totals) -> {
+            Totals current = live.remove(hotelId);
+            if (!totals.equals(current)) {
+                log.info("Room stats of hotel {} corrected from {} to {}", hotelId, current, totals);
+            }
+        });
+        live.forEach((hotelId, totals) ->
+                log.info("Room stats of hotel {} corrected from {} to no rooms", hotelId, totals));
+    }
+
+    /**
+     * A room's hotel, its persisted times booked minus this instance's increments already in it, and the
+     * times booked counted into its hotel's totals.
+     */
+    private record RoomCount(Long hotelId, long base, long timesBooked) {
+    }
+
+    private static final class Snapshot {
+        final Map<Long, Totals> byHotel = new ConcurrentHashMap<>();
+        final Map<Long, RoomCount> rooms = new ConcurrentHashMap<>();
+    }
+}
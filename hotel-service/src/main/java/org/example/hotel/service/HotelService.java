@@ -5,19 +5,39 @@ import lombok.extern.slf4j.Slf4j;
 import org.example.hotel.dto.request.ConfirmAvailabilityRequest;
 import org.example.hotel.dto.request.HotelDTORequest;
 import org.example.hotel.dto.request.ReleaseRequest;
+import org.example.hotel.dto.request.RoomConfirmCommand;
 import org.example.hotel.dto.request.RoomDTORequest;
+import org.example.hotel.dto.request.RoomReleaseCommand;
 import org.example.hotel.dto.response.HotelResponseDTO;
+import org.example.hotel.dto.response.RoomCommandResult;
+import org.example.hotel.dto.response.RoomPage;
 import org.example.hotel.dto.response.RoomResponseDTO;
 import org.example.hotel.dto.response.RoomStatsResponse;
 import org.example.hotel.entity.Hotel;
 import org.example.hotel.entity.Room;
+import org.example.hotel.entity.RoomHold;
+import org.example.hotel.entity.RoomHoldLock;
 import org.example.hotel.repository.HotelRepository;
+import org.example.hotel.repository.RoomHoldLockRepository;
+import org.example.hotel.repository.RoomHoldRepository;
+import org.example.hotel.repository.RoomRank;
 import org.example.hotel.repository.RoomRepository;
+import org.example.hotel.repository.RoomRow;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,8 +45,26 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class HotelService {
 
+    static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * Max commands accepted by one batch confirm/release call.
+     */
+    static final int MAX_BATCH_SIZE = 500;
+
+    /**
+     * How long a confirmed hold blocks overlapping stays of other bookings.
+     */
+    static final Duration HOLD_DURATION = Duration.ofMinutes(5);
+
     private final HotelRepository hotelRepository;
     private final RoomRepository roomRepository;
+    private final RoomHoldRepository roomHoldRepository;
+    private final RoomHoldLockRepository roomHoldLockRepository;
+    private final HoldExpiryScheduler holdExpiry;
+    private final RoomPopularityCounters popularity;
+    private final RoomRankingIndex ranking;
+    private final HotelRoomStats roomStats;
 
     @Transactional
     public HotelResponseDTO createHotel(HotelDTORequest request) {
@@ -47,7 +85,13 @@ public class HotelService {
                 .available(request.getAvailable())
                 .times_booked(0L)
                 .build();
-        return convertRoomToDTO(roomRepository.save(room));
+        Room saved = roomRepository.save(room);
+        roomHoldLockRepository.save(new RoomHoldLock(saved.getId()));
+        roomStats.roomCreated(saved.getId(), hotel.getId(), Boolean.TRUE.equals(saved.getAvailable()), saved.getTimes_booked());
+        if (Boolean.TRUE.equals(saved.getAvailable())) {
+            ranking.add(new RoomRank(saved.getId(), hotel.getId(), saved.getNumber(), saved.getTimes_booked()));
+        }
+        return convertRoomToDTO(saved);
     }
 
     @Transactional(readOnly = true)
@@ -64,78 +108,276 @@ public class HotelService {
         return convertToDTO(hotel);
     }
 
+    /**
+     * Available rooms ordered by id, optionally restricted to one hotel. Without a limit the
+     * rest of the listing after {@code cursor} is returned in one page.
+     */
     @Transactional(readOnly = true)
-    public List<RoomResponseDTO> getAllAvailableRooms() {
-        return roomRepository.findByAvailableTrue().stream()
-                .map(this::convertRoomToDTO)
-                .collect(Collectors.toList());
+    public RoomPage getAllAvailableRooms(Long hotelId, Integer limit, String cursor) {
+        RoomCursor after = RoomCursor.decode(cursor);
+        List<RoomRow> rooms = roomRepository.findAvailablePage(hotelId, after.id(), pageLimit(limit));
+        return toPage(rooms, limit);
     }
 
+    /**
+     * Available rooms ordered by times booked, then id, optionally restricted to one hotel. Pages are read
+     * from the {@link RoomRankingIndex}, or from the database while the index is still loading.
+     */
     @Transactional(readOnly = true)
-    public List<RoomResponseDTO> getRecommendedRooms() {
-        return roomRepository.findRecommendedRooms().stream()
-                .map(this::convertRoomToDTO)
-                .collect(Collectors.toList());
+    public RoomPage getRecommendedRooms(Long hotelId, Integer limit, String cursor) {
+        RoomCursor after = RoomCursor.decode(cursor);
+        Limit pageLimit = pageLimit(limit);
+        if (!ranking.isReady()) {
+            List<RoomRow> rooms = roomRepository.findRecommendedPage(hotelId, after.timesBooked(), after.id(), pageLimit);
+            return toPage(rooms, limit);
+        }
+        List<RoomRank> ranks = ranking.page(hotelId, after, pageLimit.isLimited() ? pageLimit.max() : Integer.MAX_VALUE);
+        int pageSize = limit == null ? ranks.size() : Math.min(limit, MAX_PAGE_SIZE);
+        if (ranks.size() <= pageSize) {
+            return new RoomPage(ranks.stream().map(HotelService::convertRankToDTO).collect(Collectors.toList()), null);
+        }
+        List<RoomRank> page = ranks.subList(0, pageSize);
+        RoomRank last = page.get(page.size() - 1);
+        return new RoomPage(
+                page.stream().map(HotelService::convertRankToDTO).collect(Collectors.toList()),
+                new RoomCursor(last.timesBooked(), last.id()).encode()
+        );
     }
 
+    /**
+     * Holds the room for the booking's stay. Holds of other bookings only conflict if their dates
+     * overlap and they haven't expired; confirming the same booking again just renews its hold.
+     * Confirms of one room queue on its {@code room_hold_locks} row; the room row itself is neither locked
+     * nor written, the booking counter goes to {@link RoomPopularityCounters}.
+     */
     @Transactional
     public void confirmRoomAvailability(Long roomId, ConfirmAvailabilityRequest request) {
+        String bookingId = request.getBookingId();
+        checkConfirm(bookingId, request.getStartDate(), request.getEndDate());
+        Boolean available = roomRepository.findAvailability(roomId)
+                .orElseThrow(() -> new RuntimeException("Room not found"));
+        if (!Boolean.TRUE.equals(available)) {
+            throw new RuntimeException("Room is not available for booking");
+        }
+        roomHoldLockRepository.lock(roomId)
+                .orElseThrow(() -> noHoldLock(roomId));
+        RoomHold own = roomHoldRepository.findByRoomIdAndBookingId(roomId, bookingId).orElse(null);
+        placeHold(roomId, own, bookingId, request.getStartDate(), request.getEndDate(), OffsetDateTime.now());
+        if (own == null) {
+            popularity.increment(roomId);
+        }
+    }
+
+    /**
+     * Drops the booking's hold on the room, if it has one. Holds of other bookings are never touched,
+     * so releasing is safe to repeat.
+     */
+    @Transactional
+    public void releaseRoom(Long roomId, ReleaseRequest request) {
         Room room = roomRepository.findById(roomId)
                 .orElseThrow(() -> new RuntimeException("Room not found"));
+        applyRelease(room, request.getBookingId());
+    }
 
+    /**
+     * Applies many confirm commands in one transaction: all affected rooms are loaded with one query and
+     * their hold locks taken with another. Each command gets its own result; a rejected command leaves its room untouched and doesn't
+     * affect the others, and a room whose hold lock couldn't be taken rejects its commands. Commands for the same room are
+     * applied in request order.
+     */
+    @Transactional
+    public List<RoomCommandResult> confirmRoomsAvailability(List<RoomConfirmCommand> commands) {
+        checkBatchSize(commands);
+        List<Long> roomIds = distinctIds(commands.stream().map(RoomConfirmCommand::getRoomId).toList());
+        Set<Long> locked = roomIds.isEmpty() ? Set.of() : new HashSet<>(roomHoldLockRepository.lockAll(roomIds));
+        Map<Long, Room> rooms = toMap(roomRepository.findAllById(roomIds));
+        OffsetDateTime now = OffsetDateTime.now();
+        List<RoomCommandResult> results = new ArrayList<>(commands.size());
+        for (RoomConfirmCommand command : commands) {
+            results.add(applyBatched(command.getRoomId(), command.getBookingId(), rooms, room -> {
+                if (!locked.contains(room.getId())) {
+                    throw noHoldLock(room.getId());
+                }
+                applyConfirm(room, command.getBookingId(), command.getStartDate(), command.getEndDate(), now);
+            }));
+        }
+        return results;
+    }
+
+    /**
+     * Batch counterpart of {@link #releaseRoom}, with the same per-command results as
+     * {@link #confirmRoomsAvailability}.
+     */
+    @Transactional
+    public List<RoomCommandResult> releaseRooms(List<RoomReleaseCommand> commands) {
+        checkBatchSize(commands);
+        Map<Long, Room> rooms = toMap(roomRepository.findAllById(
+                distinctIds(commands.stream().map(RoomReleaseCommand::getRoomId).toList())));
+        List<RoomCommandResult> results = new ArrayList<>(commands.size());
+        for (RoomReleaseCommand command : commands) {
+            results.add(applyBatched(command.getRoomId(), command.getBookingId(), rooms,
+                    room -> applyRelease(room, command.getBookingId())));
+        }
+        return results;
+    }
+
+    /**
+     * Batch path: the room's hold lock is already held.
+     */
+    private void applyConfirm(Room room, String bookingId, LocalDate startDate, LocalDate endDate, OffsetDateTime now) {
+        checkConfirm(bookingId, startDate, endDate);
         if (!Boolean.TRUE.equals(room.getAvailable())) {
             throw new RuntimeException("Room is not available for booking");
         }
+        RoomHold own = roomHoldRepository.findByRoomIdAndBookingId(room.getId(), bookingId).orElse(null);
+        placeHold(room.getId(), own, bookingId, startDate, endDate, now);
+        if (own == null) {
+            popularity.increment(room.getId());
+        }
+    }
 
-        OffsetDateTime now = OffsetDateTime.now();
-        if (room.getHoldUntil() != null
-                && room.getHoldUntil().isAfter(now)
-                && room.getLastBookingId() != null
-                && !request.getBookingId().equals(room.getLastBookingId())) {
-            throw new RuntimeException("Room is temporarily held by another booking");
+    private static IllegalStateException noHoldLock(Long roomId) {
+        return new IllegalStateException("Room " + roomId + " has no hold lock");
+    }
+
+    private static void checkConfirm(String bookingId, LocalDate startDate, LocalDate endDate) {
+        if (bookingId == null) {
+            throw new IllegalArgumentException("Booking id is required");
+        }
+        if (startDate == null || endDate == null || !startDate.isBefore(endDate)) {
+            throw new IllegalArgumentException("Invalid date range");
         }
+    }
 
-        room.setLastBookingId(request.getBookingId());
-        room.setHoldUntil(now.plusMinutes(5));
-        room.setTimes_booked(room.getTimes_booked() + 1);
-        roomRepository.save(room);
+    /**
+     * Callers must hold the room's hold lock, which keeps the overlap check and the insert atomic.
+     */
+    private void placeHold(Long roomId,
+                           RoomHold own,
+                           String bookingId,
+                           LocalDate startDate,
+                           LocalDate endDate,
+                           OffsetDateTime now) {
+        if (roomHoldRepository.existsActiveOverlap(roomId, bookingId, startDate, endDate, now)) {
+            throw new RuntimeException("Room is temporarily held by another booking");
+        }
+        RoomHold hold = own != null
+                ? own
+                : RoomHold.builder().roomId(roomId).bookingId(bookingId).build();
+        hold.setStartDate(startDate);
+        hold.setEndDate(endDate);
+        hold.setHoldUntil(now.plus(HOLD_DURATION));
+        holdExpiry.schedule(roomHoldRepository.save(hold));
     }
 
-    @Transactional
-    public void releaseRoom(Long roomId, ReleaseRequest request) {
-        Room room = roomRepository.findById(roomId)
-                .orElseThrow(() -> new RuntimeException("Room not found"));
+    private void applyRelease(Room room, String bookingId) {
+        if (bookingId == null) {
+            throw new IllegalArgumentException("Booking id is required");
+        }
+        roomHoldRepository.findByRoomIdAndBookingId(room.getId(), bookingId)
+                .ifPresent(hold -> {
+                    roomHoldRepository.delete(hold);
+                    holdExpiry.cancel(hold);
+                });
+    }
 
-        if (room.getLastBookingId() != null
-                && !room.getLastBookingId().equals(request.getBookingId())) {
-            throw new RuntimeException("Room held by another booking");
+    private static void checkBatchSize(List<?> commands) {
+        if (commands == null || commands.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one command");
         }
+        if (commands.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch must not contain more than " + MAX_BATCH_SIZE + " commands");
+        }
+    }
 
-        room.setHoldUntil(null);
-        room.setLastBookingId(null);
-        roomRepository.save(room);
+    private static List<Long> distinctIds(List<Long> roomIds) {
+        return roomIds.stream().filter(Objects::nonNull).distinct().toList();
     }
 
+    private static Map<Long, Room> toMap(List<Room> rooms) {
+        return rooms.stream().collect(Collectors.toMap(Room::getId, Function.identity()));
+    }
+
+    private static RoomCommandResult applyBatched(Long roomId,
+                                                  String bookingId,
+                                                  Map<Long, Room> rooms,
+                                                  Consumer<Room> change) {
+        Room room = rooms.get(roomId);
+        if (room == null) {
+            return RoomCommandResult.failed(roomId, bookingId, "Room not found");
+        }
+        try {
+            change.accept(room);
+            return RoomCommandResult.ok(roomId, bookingId);
+        } catch (RuntimeException ex) {
+            return RoomCommandResult.failed(roomId, bookingId, ex.getMessage());
+        }
+    }
+
+    /**
+     * Served from {@link HotelRoomStats}; rooms are only loaded while it is still being built.
+     */
     @Transactional(readOnly = true)
     public RoomStatsResponse getRoomStats(Long hotelId) {
-        Hotel hotel = hotelRepository.findById(hotelId)
-                .orElseThrow(() -> new RuntimeException("Hotel not found"));
-        List<Room> rooms = roomRepository.findByHotelId(hotel.getId());
+        if (!hotelRepository.existsById(hotelId)) {
+            throw new RuntimeException("Hotel not found");
+        }
+        if (roomStats.isReady()) {
+            HotelRoomStats.Totals totals = roomStats.get(hotelId).orElse(HotelRoomStats.Totals.EMPTY);
+            return RoomStatsResponse.builder()
+                    .hotelId(hotelId)
+                    .totalRooms(totals.totalRooms())
+                    .availableRooms(totals.availableRooms())
+                    .totalTimesBooked(totals.timesBooked())
+                    .build();
+        }
+        List<Room> rooms = roomRepository.findByHotelId(hotelId);
         long totalRooms = rooms.size();
         long availableRooms = rooms.stream()
                 .filter(r -> Boolean.TRUE.equals(r.getAvailable()))
                 .count();
         long totalTimesBooked = rooms.stream()
-                .mapToLong(Room::getTimes_booked)
+                .mapToLong(this::timesBooked)
                 .sum();
         return RoomStatsResponse.builder()
-                .hotelId(hotel.getId())
+                .hotelId(hotelId)
                 .totalRooms(totalRooms)
                 .availableRooms(availableRooms)
                 .totalTimesBooked(totalTimesBooked)
                 .build();
     }
 
+    private static Limit pageLimit(Integer limit) {
+        if (limit == null) {
+            return Limit.unlimited();
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        // one extra row tells whether there is a next page
+        return Limit.of(Math.min(limit, MAX_PAGE_SIZE) + 1);
+    }
+
+    private RoomPage toPage(List<RoomRow> rooms, Integer limit) {
+        int pageSize = limit == null ? rooms.size() : Math.min(limit, MAX_PAGE_SIZE);
+        if (rooms.size() <= pageSize) {
+            return new RoomPage(rooms.stream().map(this::convertRowToDTO).collect(Collectors.toList()), null);
+        }
+        List<RoomRow> page = rooms.subList(0, pageSize);
+        RoomRow last = page.get(page.size() - 1);
+        return new RoomPage(
+                page.stream().map(this::convertRowToDTO).collect(Collectors.toList()),
+                new RoomCursor(last.timesBooked(), last.id()).encode()
+        );
+    }
+
+    /**
+     * Persisted count plus increments not flushed yet.
+     */
+    private long timesBooked(Room room) {
+        return room.getTimes_booked() + popularity.pending(room.getId());
+    }
+
     private HotelResponseDTO convertToDTO(Hotel hotel) {
         return HotelResponseDTO.builder()
                 .id(hotel.getId())
@@ -144,13 +386,33 @@ public class HotelService {
                 .build();
     }
 
+    private RoomResponseDTO convertRowToDTO(RoomRow row) {
+        return RoomResponseDTO.builder()
+                .id(row.id())
+                .hotelId(row.hotelId())
+                .number(row.number())
+                .available(row.available())
+                .timesBooked(row.timesBooked() + popularity.pending(row.id()))
+                .build();
+    }
+
+    private static RoomResponseDTO convertRankToDTO(RoomRank rank) {
+        return RoomResponseDTO.builder()
+                .id(rank.id())
+                .hotelId(rank.hotelId())
+                .number(rank.number())
+                .available(true)
+                .timesBooked(rank.timesBooked())
+                .build();
+    }
+
     private RoomResponseDTO convertRoomToDTO(Room room) {
         return RoomResponseDTO.builder()
                 .id(room.getId())
                 .hotelId(room.getHotel().getId())
                 .number(room.getNumber())
                 .available(room.getAvailable())
-                .timesBooked(room.getTimes_booked())
+                .timesBooked(timesBooked(room))
                 .build();
     }
 }
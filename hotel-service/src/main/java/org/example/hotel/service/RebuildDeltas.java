@@ -0,0 +1,42 @@
+package org.example.hotel.service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Room changes that arrive while derived state is being reloaded from the database. The load may or
+ * may not already reflect each of them, so instead of being replayed as deltas they are reconciled
+ * with it: a room created since is added if the load missed it, and a room whose count changed is
+ * recounted from {@link RoomPopularityCounters#counted(Long)}, which is right whether the load saw the
+ * change or not.
+ *
+ * @param <R> what the derived state needs to add a created room
+ */
+final class RebuildDeltas<R> {
+
+    private final Map<Long, R> created = new ConcurrentHashMap<>();
+    private final Set<Long> counted = ConcurrentHashMap.newKeySet();
+
+    void roomCreated(Long roomId, R room) {
+        created.put(roomId, room);
+    }
+
+    void roomCounted(Long roomId) {
+        counted.add(roomId);
+    }
+
+    /**
+     * Hands {@code add} every created room missing from the load, then {@code recount} every room whose
+     * count changed.
+     */
+    void replay(Set<Long> loadedRoomIds, Consumer<R> add, Consumer<Long> recount) {
+        created.forEach((roomId, room) -> {
+            if (!loadedRoomIds.contains(roomId)) {
+                add.accept(room);
+            }
+        });
+        counted.forEach(recount);
+    }
+}
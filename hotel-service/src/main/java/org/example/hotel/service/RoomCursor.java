@@ -0,0 +1,32 @@
+package org.example.hotel.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position in a room listing: the sort key of the last room returned.
+ * Encoded as an opaque URL-safe token so clients can't depend on its layout.
+ */
+record RoomCursor(long timesBooked, long id) {
+
+    static final RoomCursor START = new RoomCursor(-1L, 0L);
+
+    String encode() {
+        String raw = timesBooked + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static RoomCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new RoomCursor(Long.parseLong(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
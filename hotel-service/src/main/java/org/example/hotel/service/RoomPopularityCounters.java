@@ -0,0 +1,227 @@
+package org.example.hotel.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Buffers {@code times_booked} increments in memory so confirms don't write the room row.
+ * <p>
+ * Each room gets a {@link LongAdder}, which spreads concurrent increments over internal cells, and
+ * the accumulated deltas are added to {@code rooms.times_booked} with one JDBC batch in one transaction
+ * every {@code hotel.popularity.flush-interval}. Readers combine the persisted value with
+ * {@link #pending(Long)}. Deltas not yet flushed are lost if the instance dies without a clean
+ * shutdown, so the flush interval bounds how much popularity can be lost.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomPopularityCounters {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, LongAdder> deltas = new ConcurrentHashMap<>();
+    private final List<Consumer<Long>> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong flushCount = new AtomicLong();
+
+    /**
+     * Serializes flushes. A lock rather than {@code synchronized}: the flush holds it across a JDBC
+     * batch, which on a virtual thread would otherwise pin the carrier for the whole write.
+     */
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    /**
+     * Deltas taken out of {@link #deltas} by the running flush and not committed yet; they still
+     * count as pending for readers.
+     */
+    private volatile Map<Long, Long> flushing = Map.of();
+
+    /**
+     * Deltas of each room this instance has written to the database so far.
+     */
+    private final Map<Long, Long> flushed = new ConcurrentHashMap<>();
+
+    /**
+     * {@link #pending(Long)} and {@link #counted(Long)} hold the read lock; moving deltas into
+     * {@link #flushing}, and from it into {@link #flushed} as the flush count moves on, hold the write lock, so a reader sees each delta
+     * exactly once and the count it reads tells whether it is already persisted. Increments don't
+     * take it.
+     */
+    private final ReentrantReadWriteLock pendingLock = new ReentrantReadWriteLock();
+
+    /**
+     * Counts one booking of the room. Inside a transaction the increment is visible right away and
+     * undone if the transaction doesn't commit.
+     */
+    public void increment(Long roomId) {
+        LongAdder delta = deltas.computeIfAbsent(roomId, id -> new LongAdder());
+        delta.increment();
+        notifyListeners(roomId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        delta.decrement();
+                        notifyListeners(roomId);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Registers a callback run with the room id whenever the room's times booked changes. It runs after
+     * the change, so {@link #counted(Long)} read from it already includes it.
+     */
+    public void addListener(Consumer<Long> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Number of completed flushes. Deltas leave {@link #pending(Long)} in the same step as it moves on.
+     */
+    public long flushCount() {
+        return flushCount.get();
+    }
+
+    /**
+     * Runs {@code read} with no flush in progress, so the persisted counts it loads and
+     * {@link #flushed(Long)} or {@link #pending(Long)} are of the same moment.
+     */
+    public <T> T withoutFlush(Supplier<T> read) {
+        flushLock.lock();
+        try {
+            return read.get();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void notifyListeners(Long roomId) {
+        listeners.forEach(listener -> listener.accept(roomId));
+    }
+
+    /**
+     * Increments of the room not yet written to {@code rooms.times_booked}.
+     */
+    public long pending(Long roomId) {
+        pendingLock.readLock().lock();
+        try {
+            LongAdder delta = deltas.get(roomId);
+            return (delta == null ? 0 : delta.sum()) + flushing.getOrDefault(roomId, 0L);
+        } finally {
+            pendingLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Increments of the room this instance has written to {@code rooms.times_booked}.
+     */
+    public long flushed(Long roomId) {
+        return flushed.getOrDefault(roomId, 0L);
+    }
+
+    /**
+     * Every increment of the room counted by this instance, written to the database or not. Unlike
+     * {@link #pending(Long)} it doesn't drop when a flush moves deltas into the database, so state
+     * derived from the persisted count minus {@link #flushed(Long)} at load time stays right across
+     * flushes by adding this.
+     */
+    public long counted(Long roomId) {
+        pendingLock.readLock().lock();
+        try {
+            LongAdder delta = deltas.get(roomId);
+            return flushed.getOrDefault(roomId, 0L)
+                    + (delta == null ? 0 : delta.sum())
+                    + flushing.getOrDefault(roomId, 0L);
+        } finally {
+            pendingLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the accumulated deltas to the database. On failure they are put back and retried
+     * by the next flush.
+     */
+    @Scheduled(fixedDelayString = "${hotel.popularity.flush-interval:PT5S}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushLocked();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushLocked() {
+        Map<Long, Long> batch = new HashMap<>();
+        pendingLock.writeLock().lock();
+        try {
+            flushing = batch;
+            // entries are never removed, so an increment can't land in an adder that was dropped
+            deltas.forEach((roomId, delta) -> {
+                long value = delta.sumThenReset();
+                if (value != 0) {
+                    batch.put(roomId, value);
+                }
+            });
+        } finally {
+            pendingLock.writeLock().unlock();
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        boolean committed = false;
+        try {
+            List<Object[]> args = new ArrayList<>(batch.size());
+            // id order keeps concurrent flushers of several instances from deadlocking
+            batch.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .forEach(e -> args.add(new Object[]{e.getValue(), e.getKey()}));
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                    "UPDATE rooms SET times_booked = times_booked + ? WHERE id = ?", args));
+            committed = true;
+        } catch (RuntimeException ex) {
+            log.warn("Flushing times_booked of {} rooms failed, will retry: {}", batch.size(), ex.getMessage());
+        } finally {
+            pendingLock.writeLock().lock();
+            try {
+                if (committed) {
+                    batch.forEach((roomId, value) -> flushed.merge(roomId, value, Long::sum));
+                    flushCount.incrementAndGet();
+                } else {
+                    batch.forEach((roomId, value) -> deltas.computeIfAbsent(roomId, id -> new LongAdder()).add(value));
+                }
+                flushing = Map.of();
+            } finally {
+                pendingLock.writeLock().unlock();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
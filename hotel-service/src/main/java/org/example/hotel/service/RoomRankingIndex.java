@@ -0,0 +1,251 @@
+package org.example.hotel.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.hotel.repository.RoomRank;
+import org.example.hotel.repository.RoomRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Live ranking of available rooms by (times booked, id), overall and per hotel, kept in skip lists so
+ * a top-K page is a walk of K entries from the cursor instead of a sort.
+ * <p>
+ * Each room keeps its persisted count minus the increments this instance had flushed when it was
+ * loaded, and is ranked by that plus {@link RoomPopularityCounters#counted(Long)}, which notifies the
+ * index of every change; flushes don't move it. The index is loaded on startup and reloaded every
+ * {@code hotel.ranking.refresh-interval} to pick up bookings counted by other instances; until it is
+ * {@link #isReady() ready}, callers must fall back to the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomRankingIndex {
+
+    static final Comparator<RoomRank> RANK_ORDER = Comparator.comparingLong(RoomRank::timesBooked)
+            .thenComparingLong(RoomRank::id);
+
+    private final RoomRepository roomRepository;
+    private final RoomPopularityCounters popularity;
+
+    /**
+     * Single-room updates hold the read lock (each keeps itself consistent through {@code byId.compute}),
+     * swapping in a freshly loaded ranking holds the write lock.
+     */
+    private final ReentrantReadWriteLock structureLock = new ReentrantReadWriteLock();
+
+    /**
+     * Serializes rebuilds: the startup load and the scheduled refresh may overlap.
+     */
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private volatile Ranking ranking = new Ranking();
+    private volatile boolean ready;
+
+    /**
+     * Changes to record while a rebuild is loading, {@code null} otherwise. Set and cleared under the
+     * write lock, read under the read lock.
+     */
+    private RebuildDeltas<RoomRank> rebuildDeltas;
+
+    @PostConstruct
+    void subscribe() {
+        popularity.addListener(this::adjust);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Up to {@code limit} rooms ranked after {@code after}, optionally restricted to one hotel.
+     */
+    List<RoomRank> page(Long hotelId, RoomCursor after, int limit) {
+        Ranking current = ranking;
+        NavigableSet<RoomRank> ranked = hotelId == null ? current.all : current.byHotel.get(hotelId);
+        if (ranked == null) {
+            return List.of();
+        }
+        RoomRank from = new RoomRank(after.id(), null, null, after.timesBooked());
+        List<RoomRank> page = new ArrayList<>();
+        Iterator<RoomRank> it = ranked.tailSet(from, false).iterator();
+        while (page.size() < limit && it.hasNext()) {
+            page.add(it.next());
+        }
+        return page;
+    }
+
+    /**
+     * Adds a newly created room once its transaction commits.
+     */
+    void add(RoomRank room) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(room);
+                }
+            });
+        } else {
+            put(room);
+        }
+    }
+
+    private void put(RoomRank room) {
+        structureLock.readLock().lock();
+        try {
+            if (rebuildDeltas != null) {
+                rebuildDeltas.roomCreated(room.id(), room);
+            }
+            place(ranking, room);
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Listener of {@link RoomPopularityCounters}: the room is recounted rather than moved by a delta, so
+     * a change the index has already seen through a reload isn't applied twice.
+     */
+    void adjust(Long roomId) {
+        structureLock.readLock().lock();
+        try {
+            if (rebuildDeltas != null) {
+                rebuildDeltas.roomCounted(roomId);
+            }
+            recount(ranking, roomId);
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Puts the room into {@code target}, {@code persisted} carrying its times booked as read from the
+     * database.
+     */
+    private void place(Ranking target, RoomRank persisted) {
+        long base = persisted.timesBooked() - popularity.flushed(persisted.id());
+        target.bases.put(persisted.id(), base);
+        target.byId.compute(persisted.id(), (id, current) -> {
+            if (current != null) {
+                target.remove(current);
+            }
+            RoomRank counted = persisted.withTimesBooked(base + popularity.counted(id));
+            target.insert(counted);
+            return counted;
+        });
+    }
+
+    private void recount(Ranking target, Long roomId) {
+        Long base = target.bases.get(roomId);
+        if (base == null) {
+            return;
+        }
+        target.byId.computeIfPresent(roomId, (id, current) -> {
+            long timesBooked = base + popularity.counted(id);
+            if (timesBooked == current.timesBooked()) {
+                return current;
+            }
+            RoomRank updated = current.withTimesBooked(timesBooked);
+            target.remove(current);
+            target.insert(updated);
+            return updated;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Reloads the ranking from the database, with no counter flush in progress so the persisted counts
+     * and {@link RoomPopularityCounters#flushed(Long)} agree. Rooms created or counted while it is being
+     * read are recorded and reconciled with the load before it is swapped in, so a reload succeeds
+     * under any booking load.
+     */
+    @Scheduled(fixedDelayString = "${hotel.ranking.refresh-interval:PT1M}",
+            initialDelayString = "${hotel.ranking.refresh-interval:PT1M}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            RebuildDeltas<RoomRank> deltas = new RebuildDeltas<>();
+            setRebuildDeltas(deltas);
+            try {
+                Ranking loaded = popularity.withoutFlush(this::load);
+
+                structureLock.writeLock().lock();
+                try {
+                    deltas.replay(loaded.byId.keySet(), room -> place(loaded, room), roomId -> recount(loaded, roomId));
+                    ranking = loaded;
+                    ready = true;
+                    rebuildDeltas = null;
+                    log.debug("Room ranking built: {} available rooms", loaded.byId.size());
+                } finally {
+                    structureLock.writeLock().unlock();
+                }
+            } finally {
+                setRebuildDeltas(null);
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private Ranking load() {
+        Ranking loaded = new Ranking();
+        for (RoomRank room : roomRepository.findAvailableRanks()) {
+            place(loaded, room);
+        }
+        return loaded;
+    }
+
+    private void setRebuildDeltas(RebuildDeltas<RoomRank> deltas) {
+        structureLock.writeLock().lock();
+        try {
+            rebuildDeltas = deltas;
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    private static final class Ranking {
+        final Map<Long, RoomRank> byId = new ConcurrentHashMap<>();
+        final NavigableSet<RoomRank> all = new ConcurrentSkipListSet<>(RANK_ORDER);
+        final Map<Long, NavigableSet<RoomRank>> byHotel = new ConcurrentHashMap<>();
+
+        /**
+         * Persisted times booked of each room minus this instance's increments already in it.
+         */
+        final Map<Long, Long> bases = new ConcurrentHashMap<>();
+
+        void insert(RoomRank room) {
+            all.add(room);
+            byHotel.computeIfAbsent(room.hotelId(), id -> new ConcurrentSkipListSet<>(RANK_ORDER)).add(room);
+        }
+
+        void remove(RoomRank room) {
+            all.remove(room);
+            NavigableSet<RoomRank> hotelRooms = byHotel.get(room.hotelId());
+            if (hotelRooms != null) {
+                hotelRooms.remove(room);
+            }
+        }
+    }
+}
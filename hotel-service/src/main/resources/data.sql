@@ -8,22 +8,26 @@ INSERT INTO hotels (id, name, address)
 VALUES (3, 'Airport Hotel', 'Airport Road 3');
 
 -- Rooms for Hotel 1: mix of fresh and popular rooms
-INSERT INTO rooms (id, hotel_id, number, available, times_booked, last_booking_id, hold_until)
-VALUES (1, 1, '101', TRUE, 0, NULL, NULL);
+INSERT INTO rooms (id, hotel_id, number, available, times_booked)
+VALUES (1, 1, '101', TRUE, 0);
 
-INSERT INTO rooms (id, hotel_id, number, available, times_booked, last_booking_id, hold_until)
-VALUES (2, 1, '102', TRUE, 5, NULL, NULL);
+INSERT INTO rooms (id, hotel_id, number, available, times_booked)
+VALUES (2, 1, '102', TRUE, 5);
 
-INSERT INTO rooms (id, hotel_id, number, available, times_booked, last_booking_id, hold_until)
-VALUES (3, 1, '103', FALSE, 10, NULL, NULL);
+INSERT INTO rooms (id, hotel_id, number, available, times_booked)
+VALUES (3, 1, '103', FALSE, 10);
 
 -- Rooms for Hotel 2
-INSERT INTO rooms (id, hotel_id, number, available, times_booked, last_booking_id, hold_until)
-VALUES (4, 2, '201', TRUE, 1, NULL, NULL);
+INSERT INTO rooms (id, hotel_id, number, available, times_booked)
+VALUES (4, 2, '201', TRUE, 1);
 
-INSERT INTO rooms (id, hotel_id, number, available, times_booked, last_booking_id, hold_until)
-VALUES (5, 2, '202', TRUE, 3, NULL, NULL);
+INSERT INTO rooms (id, hotel_id, number, available, times_booked)
+VALUES (5, 2, '202', TRUE, 3);
 
 -- Rooms for Hotel 3
-INSERT INTO rooms (id, hotel_id, number, available, times_booked, last_booking_id, hold_until)
-VALUES (6, 3, '301', TRUE, 0, NULL, NULL);
+INSERT INTO rooms (id, hotel_id, number, available, times_booked)
+VALUES (6, 3, '301', TRUE, 0);
+
+-- Every room gets the row its confirms lock while placing holds
+INSERT INTO room_hold_locks (room_id)
+SELECT id FROM rooms;
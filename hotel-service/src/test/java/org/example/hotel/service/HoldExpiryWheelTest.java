@@ -0,0 +1,73 @@
+package org.example.hotel.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HoldExpiryWheelTest {
+
+    private static final long TICK = 1_000;
+    private static final long START = 1_000_000;
+
+    @Test
+    void slotCountIsRoundedUpToPowerOfTwo() {
+        assertEquals(8, new HoldExpiryWheel(TICK, 5, START).slotCount());
+        assertEquals(512, new HoldExpiryWheel(TICK, 512, START).slotCount());
+    }
+
+    @Test
+    void advance_firesHoldsOnlyOnceTheirDeadlinePassed() {
+        HoldExpiryWheel wheel = new HoldExpiryWheel(TICK, 8, START);
+        wheel.schedule(1, 10, START + 2_500);
+        wheel.schedule(2, 20, START + 5_000);
+
+        assertTrue(wheel.advance(START + 2_000).isEmpty());
+        assertEquals(List.of(1L), holdIds(wheel.advance(START + 3_000)));
+        assertTrue(wheel.advance(START + 4_999).isEmpty());
+        assertEquals(List.of(2L), holdIds(wheel.advance(START + 5_000)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_keepsHoldsMoreThanOneRevolutionAway() {
+        HoldExpiryWheel wheel = new HoldExpiryWheel(TICK, 8, START);
+        // same slot as START + 3s, but two revolutions later
+        wheel.schedule(1, 10, START + 3_000 + 16 * TICK);
+
+        for (long now = START; now <= START + 18 * TICK; now += TICK) {
+            assertTrue(wheel.advance(now).isEmpty(), "fired early at " + (now - START));
+        }
+        assertEquals(List.of(1L), holdIds(wheel.advance(START + 19 * TICK)));
+    }
+
+    @Test
+    void advance_catchesUpAfterLongPause() {
+        HoldExpiryWheel wheel = new HoldExpiryWheel(TICK, 8, START);
+        wheel.advance(START);
+        for (long id = 1; id <= 30; id++) {
+            wheel.schedule(id, id, START + id * TICK);
+        }
+
+        assertEquals(30, wheel.advance(START + 100 * TICK).size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void rescheduleAndCancelReplacePreviousEntry() {
+        HoldExpiryWheel wheel = new HoldExpiryWheel(TICK, 8, START);
+        wheel.schedule(1, 10, START + 1_000);
+        wheel.schedule(1, 10, START + 4_000);
+        wheel.schedule(2, 20, START + 1_000);
+        wheel.cancel(2);
+
+        assertEquals(1, wheel.size());
+        assertTrue(wheel.advance(START + 2_000).isEmpty());
+        assertEquals(List.of(1L), holdIds(wheel.advance(START + 4_000)));
+    }
+
+    private static List<Long> holdIds(List<HoldExpiryWheel.Expiry> expiries) {
+        return expiries.stream().map(HoldExpiryWheel.Expiry::holdId).toList();
+    }
+}
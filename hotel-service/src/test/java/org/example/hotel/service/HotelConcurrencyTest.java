@@ -0,0 +1,169 @@
+package org.example.hotel.service;
+
+import org.example.hotel.dto.request.ConfirmAvailabilityRequest;
+import org.example.hotel.entity.Room;
+import org.example.hotel.repository.RoomHoldRepository;
+import org.example.hotel.repository.RoomRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class HotelConcurrencyTest {
+
+    private static final int THREADS = 64;
+
+    @Autowired
+    private HotelService hotelService;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomHoldRepository roomHoldRepository;
+
+    @Autowired
+    private RoomPopularityCounters popularity;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Map<Long, Long> seededTimesBooked;
+
+    @BeforeEach
+    void rememberSeed() {
+        seededTimesBooked = roomRepository.findAll().stream()
+                .collect(Collectors.toMap(Room::getId, Room::getTimes_booked));
+    }
+
+    @AfterEach
+    void restoreSeed() {
+        popularity.flush();
+        roomHoldRepository.deleteAll();
+        List<Room> rooms = roomRepository.findAll();
+        rooms.forEach(room -> room.setTimes_booked(seededTimesBooked.get(room.getId())));
+        roomRepository.saveAll(rooms);
+    }
+
+    @Test
+    void concurrentConfirms_countEveryNonOverlappingStay() throws Exception {
+        LocalDate first = LocalDate.now().plusDays(1);
+
+        long successCount = confirmConcurrently(1L, i -> first.plusDays(i));
+
+        assertEquals(THREADS, successCount);
+        popularity.flush();
+        assertEquals(0, popularity.pending(1L));
+        assertEquals(seededTimesBooked.get(1L) + THREADS, roomRepository.findById(1L).orElseThrow().getTimes_booked());
+        assertEquals(THREADS, roomHoldRepository.findByRoomIdOrderByStartDate(1L).size());
+    }
+
+    @Test
+    void concurrentConfirms_onlyOneHoldsOverlappingStay() throws Exception {
+        LocalDate start = LocalDate.now().plusDays(1);
+
+        long successCount = confirmConcurrently(2L, i -> start);
+
+        assertEquals(1, successCount);
+        popularity.flush();
+        assertEquals(seededTimesBooked.get(2L) + 1, roomRepository.findById(2L).orElseThrow().getTimes_booked());
+        assertEquals(1, roomHoldRepository.findByRoomIdOrderByStartDate(2L).size());
+    }
+
+    @Test
+    void confirms_doNotWaitForTheRoomRow() throws Exception {
+        LocalDate first = LocalDate.now().plusDays(1);
+        CountDownLatch rowLocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            // a counter flush or any other writer of the room keeps its row locked meanwhile
+            Future<?> writer = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.queryForObject("SELECT times_booked FROM rooms WHERE id = 1 FOR UPDATE", Long.class);
+                rowLocked.countDown();
+                try {
+                    assertTrue(release.await(10, TimeUnit.SECONDS));
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertTrue(rowLocked.await(5, TimeUnit.SECONDS));
+
+            long successCount = confirmConcurrently(1L, i -> first.plusDays(i));
+
+            release.countDown();
+            writer.get(5, TimeUnit.SECONDS);
+            assertEquals(THREADS, successCount);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Fires {@link #THREADS} confirms of one room at once, booking i asking for a one-night stay from
+     * {@code startFor(i)}. Returns how many were accepted.
+     */
+    private long confirmConcurrently(Long roomId, IntFunction<LocalDate> startFor) throws Exception {
+        var executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+
+        for (int i = 0; i < THREADS; i++) {
+            ConfirmAvailabilityRequest request = ConfirmAvailabilityRequest.builder()
+                    .bookingId("booking-" + i)
+                    .startDate(startFor.apply(i))
+                    .endDate(startFor.apply(i).plusDays(1))
+                    .build();
+            tasks.add(() -> {
+                startSignal.await();
+                try {
+                    hotelService.confirmRoomAvailability(roomId, request);
+                    return true;
+                } catch (RuntimeException ex) {
+                    if (!ex.getMessage().contains("temporarily held")) {
+                        throw ex;
+                    }
+                    return false;
+                }
+            });
+        }
+
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (Callable<Boolean> task : tasks) {
+            futures.add(executor.submit(task));
+        }
+        startSignal.countDown();
+
+        long successCount = 0;
+        for (Future<Boolean> future : futures) {
+            if (future.get()) {
+                successCount++;
+            }
+        }
+        executor.shutdown();
+        return successCount;
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.hotel.service;
+
+import org.example.hotel.repository.RoomRepository;
+import org.example.hotel.repository.RoomStatsRow;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+class HotelRoomStatsTest {
+
+    private static final int ROOMS = 20;
+    private static final int CREATED_ROOMS = 10;
+
+    /**
+     * rooms.times_booked as the database holds it, moved on by the counters' flushes.
+     */
+    private final Map<Long, AtomicLong> persisted = new ConcurrentHashMap<>();
+
+    @Test
+    void rebuild_succeedsAndStaysExactWhileRoomsAreCreatedAndConfirmed() throws Exception {
+        for (long id = 1; id <= ROOMS; id++) {
+            persisted.put(id, new AtomicLong(id % 4));
+        }
+        RoomPopularityCounters popularity = new RoomPopularityCounters(jdbcTemplate(), transactionTemplate());
+        RoomRepository roomRepository = Mockito.mock(RoomRepository.class);
+        when(roomRepository.findStatsRows()).thenAnswer(invocation -> {
+            List<RoomStatsRow> rows = new ArrayList<>();
+            persisted.forEach((id, timesBooked) -> {
+                rows.add(new RoomStatsRow(id, id % 2, id % 3 != 0, timesBooked.get()));
+                Thread.yield();
+            });
+            return rows;
+        });
+        HotelRoomStats stats = new HotelRoomStats(roomRepository, popularity);
+        stats.subscribe();
+
+        Map<Long, Long> expected = new ConcurrentHashMap<>();
+        persisted.forEach((id, timesBooked) -> expected.put(id, timesBooked.get()));
+        AtomicBoolean stop = new AtomicBoolean();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                writers.add(pool.submit(() -> {
+                    while (!stop.get()) {
+                        long roomId = ThreadLocalRandom.current().nextLong(1, ROOMS + 1);
+                        popularity.increment(roomId);
+                        expected.merge(roomId, 1L, Long::sum);
+                    }
+                }));
+            }
+            writers.add(pool.submit(() -> {
+                while (!stop.get()) {
+                    popularity.flush();
+                }
+            }));
+            writers.add(pool.submit(() -> {
+                for (long id = ROOMS + 1; id <= ROOMS + CREATED_ROOMS; id++) {
+                    persisted.put(id, new AtomicLong());
+                    expected.put(id, 0L);
+                    stats.roomCreated(id, id % 2, id % 3 != 0, 0);
+                    Thread.yield();
+                }
+            }));
+
+            for (int i = 0; i < 20; i++) {
+                stats.rebuild();
+                assertTrue(stats.isReady());
+            }
+            stop.set(true);
+            for (Future<?> writer : writers) {
+                writer.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            stop.set(true);
+            pool.shutdownNow();
+        }
+
+        assertEquals(expectedTotals(expected, 0), stats.get(0L).orElseThrow());
+        assertEquals(expectedTotals(expected, 1), stats.get(1L).orElseThrow());
+
+        // and a reload from the database agrees once everything is flushed
+        popularity.flush();
+        stats.rebuild();
+        assertEquals(expectedTotals(expected, 0), stats.get(0L).orElseThrow());
+        assertEquals(expectedTotals(expected, 1), stats.get(1L).orElseThrow());
+    }
+
+    private static HotelRoomStats.Totals expectedTotals(Map<Long, Long> expected, long hotelId) {
+        return expected.entrySet().stream()
+                .filter(e -> e.getKey() % 2 == hotelId)
+                .map(e -> new HotelRoomStats.Totals(1, e.getKey() % 3 != 0 ? 1 : 0, e.getValue()))
+                .reduce(HotelRoomStats.Totals.EMPTY, HotelRoomStats.Totals::plus);
+    }
+
+    private JdbcTemplate jdbcTemplate() {
+        JdbcTemplate jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> args = invocation.getArgument(1);
+            args.forEach(row -> persisted.get((Long) row[1]).addAndGet((Long) row[0]));
+            return new int[args.size()];
+        });
+        return jdbcTemplate;
+    }
+
+    private static TransactionTemplate transactionTemplate() {
+        TransactionTemplate transactionTemplate = Mockito.mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        return transactionTemplate;
+    }
+}
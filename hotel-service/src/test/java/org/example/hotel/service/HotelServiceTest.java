@@ -1,15 +1,34 @@
 package org.example.hotel.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.hotel.config.HoldExpiryProperties;
 import org.example.hotel.dto.request.ConfirmAvailabilityRequest;
 import org.example.hotel.dto.request.ReleaseRequest;
+import org.example.hotel.dto.request.RoomConfirmCommand;
+import org.example.hotel.dto.request.RoomReleaseCommand;
+import org.example.hotel.dto.response.RoomCommandResult;
+import org.example.hotel.dto.response.RoomPage;
+import org.example.hotel.dto.response.RoomResponseDTO;
+import org.example.hotel.dto.response.RoomStatsResponse;
 import org.example.hotel.entity.Room;
+import org.example.hotel.entity.RoomHold;
+import org.example.hotel.repository.RoomHoldLockRepository;
+import org.example.hotel.repository.RoomHoldRepository;
 import org.example.hotel.repository.RoomRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -22,11 +41,19 @@ class HotelServiceTest {
     @Autowired
     private RoomRepository roomRepository;
 
+    @Autowired
+    private RoomHoldRepository roomHoldRepository;
+
+    @Autowired
+    private RoomHoldLockRepository roomHoldLockRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @Test
     @Transactional
     void confirmRoomAvailability_setsHoldAndIncrementsCounter() {
-        Room roomBefore = roomRepository.findById(1L).orElseThrow();
-        long initialTimesBooked = roomBefore.getTimes_booked();
+        long initialTimesBooked = timesBooked(1L);
 
         ConfirmAvailabilityRequest request = ConfirmAvailabilityRequest.builder()
                 .bookingId("booking-1")
@@ -35,12 +62,50 @@ class HotelServiceTest {
                 .build();
 
         hotelService.confirmRoomAvailability(1L, request);
+        hotelService.confirmRoomAvailability(1L, request);
+
+        RoomHold hold = roomHoldRepository.findByRoomIdAndBookingId(1L, "booking-1").orElseThrow();
+        assertEquals(request.getStartDate(), hold.getStartDate());
+        assertEquals(request.getEndDate(), hold.getEndDate());
+        assertTrue(hold.getHoldUntil().isAfter(OffsetDateTime.now().minusMinutes(1)));
+        // confirming the same booking again renews its hold without counting it twice
+        assertEquals(initialTimesBooked + 1, timesBooked(1L));
+    }
+
+    @Test
+    @Transactional
+    void confirmRoomAvailability_allowsNonOverlappingStaysOfOtherBookings() {
+        LocalDate day = LocalDate.now().plusDays(10);
+        hotelService.confirmRoomAvailability(2L, confirm("booking-1", day, day.plusDays(3)));
+        hotelService.confirmRoomAvailability(2L, confirm("booking-2", day.plusDays(3), day.plusDays(5)));
+        hotelService.confirmRoomAvailability(2L, confirm("booking-3", day.minusDays(2), day));
 
-        Room roomAfter = roomRepository.findById(1L).orElseThrow();
-        assertEquals("booking-1", roomAfter.getLastBookingId());
-        assertNotNull(roomAfter.getHoldUntil());
-        assertTrue(roomAfter.getHoldUntil().isAfter(OffsetDateTime.now().minusMinutes(1)));
-        assertEquals(initialTimesBooked + 1, roomAfter.getTimes_booked());
+        RuntimeException ex = assertThrows(RuntimeException.class,
+                () -> hotelService.confirmRoomAvailability(2L, confirm("booking-4", day.plusDays(2), day.plusDays(4))));
+        assertTrue(ex.getMessage().contains("temporarily held"));
+        assertEquals(List.of("booking-3", "booking-1", "booking-2"),
+                roomHoldRepository.findByRoomIdOrderByStartDate(2L).stream().map(RoomHold::getBookingId).toList());
+    }
+
+    @Test
+    @Transactional
+    void confirmRoomAvailability_ignoresExpiredHolds() {
+        LocalDate day = LocalDate.now().plusDays(10);
+        hotelService.confirmRoomAvailability(6L, confirm("booking-1", day, day.plusDays(2)));
+        RoomHold expired = roomHoldRepository.findByRoomIdAndBookingId(6L, "booking-1").orElseThrow();
+        expired.setHoldUntil(OffsetDateTime.now().minusSeconds(1));
+        roomHoldRepository.save(expired);
+
+        hotelService.confirmRoomAvailability(6L, confirm("booking-2", day, day.plusDays(2)));
+
+        assertTrue(roomHoldRepository.findByRoomIdAndBookingId(6L, "booking-2").isPresent());
+    }
+
+    @Test
+    @Transactional
+    void confirmRoomAvailability_rejectsMissingDates() {
+        assertThrows(IllegalArgumentException.class, () -> hotelService.confirmRoomAvailability(1L,
+                ConfirmAvailabilityRequest.builder().bookingId("booking-1").build()));
     }
 
     @Test
@@ -78,15 +143,14 @@ class HotelServiceTest {
                 .bookingId("booking-3")
                 .build();
         hotelService.releaseRoom(4L, release);
+        hotelService.releaseRoom(4L, release);
 
-        Room room = roomRepository.findById(4L).orElseThrow();
-        assertNull(room.getHoldUntil());
-        assertNull(room.getLastBookingId());
+        assertTrue(roomHoldRepository.findByRoomIdOrderByStartDate(4L).isEmpty());
     }
 
     @Test
     @Transactional
-    void releaseRoom_rejectsDifferentBooking() {
+    void releaseRoom_keepsHoldsOfOtherBookings() {
         ConfirmAvailabilityRequest confirm = ConfirmAvailabilityRequest.builder()
                 .bookingId("booking-4")
                 .startDate(OffsetDateTime.now().toLocalDate())
@@ -98,9 +162,219 @@ class HotelServiceTest {
                 .bookingId("other-booking")
                 .build();
 
-        RuntimeException ex = assertThrows(RuntimeException.class,
-                () -> hotelService.releaseRoom(5L, release));
-        assertTrue(ex.getMessage().contains("held by another booking"));
+        hotelService.releaseRoom(5L, release);
+
+        assertTrue(roomHoldRepository.findByRoomIdAndBookingId(5L, "booking-4").isPresent());
     }
-}
 
+    @Test
+    @Transactional
+    void getAllAvailableRooms_pagesThroughRoomsByIdWithCursor() {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            RoomPage page = hotelService.getAllAvailableRooms(null, 2, cursor);
+            page.getItems().forEach(room -> ids.add(room.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(List.of(1L, 2L, 4L, 5L, 6L), ids);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    @Transactional
+    void getAllAvailableRooms_filtersByHotel() {
+        RoomPage page = hotelService.getAllAvailableRooms(2L, null, null);
+
+        assertEquals(List.of(4L, 5L), page.getItems().stream().map(RoomResponseDTO::getId).toList());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @Transactional
+    void getRecommendedRooms_pagesInTimesBookedOrder() {
+        RoomPage first = hotelService.getRecommendedRooms(null, 3, null);
+        RoomPage second = hotelService.getRecommendedRooms(null, 3, first.getNextCursor());
+
+        assertEquals(List.of(1L, 6L, 4L), first.getItems().stream().map(RoomResponseDTO::getId).toList());
+        assertEquals(List.of(5L, 2L), second.getItems().stream().map(RoomResponseDTO::getId).toList());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    @Transactional
+    void getRecommendedRooms_reranksRoomsAsTheyAreBooked() {
+        LocalDate start = LocalDate.now().plusDays(1);
+        hotelService.confirmRoomAvailability(6L, confirm("rank-1", start, start.plusDays(1)));
+        hotelService.confirmRoomAvailability(6L, confirm("rank-2", start.plusDays(1), start.plusDays(2)));
+
+        RoomPage all = hotelService.getRecommendedRooms(null, null, null);
+        RoomPage hotelThree = hotelService.getRecommendedRooms(3L, 1, null);
+
+        assertEquals(List.of(1L, 4L, 6L, 5L, 2L), all.getItems().stream().map(RoomResponseDTO::getId).toList());
+        assertEquals(2L, all.getItems().get(2).getTimesBooked());
+        assertEquals(List.of(6L), hotelThree.getItems().stream().map(RoomResponseDTO::getId).toList());
+        assertNull(hotelThree.getNextCursor());
+    }
+
+    @Test
+    @Transactional
+    void getRoomStats_countsConfirmsWithoutReloadingRooms() {
+        LocalDate start = LocalDate.now().plusDays(1);
+        hotelService.confirmRoomAvailability(4L, confirm("stats-1", start, start.plusDays(1)));
+
+        RoomStatsResponse stats = hotelService.getRoomStats(2L);
+
+        assertEquals(2, stats.getTotalRooms());
+        assertEquals(2, stats.getAvailableRooms());
+        assertEquals(1 + 3 + 1, stats.getTotalTimesBooked());
+        assertThrows(RuntimeException.class, () -> hotelService.getRoomStats(999L));
+    }
+
+    @Test
+    void getAllAvailableRooms_rejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> hotelService.getAllAvailableRooms(null, 2, "not a cursor"));
+    }
+
+    @Test
+    @Transactional
+    void confirmRoomsAvailability_reportsEachCommandSeparately() {
+        long timesBookedBefore = timesBooked(1L);
+        LocalDate start = LocalDate.now().plusDays(1);
+        LocalDate end = start.plusDays(2);
+        hotelService.confirmRoomAvailability(2L, confirm("holder", start, end));
+
+        List<RoomCommandResult> results = hotelService.confirmRoomsAvailability(List.of(
+                confirmCommand(1L, "b-1", start, end),
+                confirmCommand(2L, "b-2", start, end),
+                confirmCommand(3L, "b-3", start, end),
+                confirmCommand(999L, "b-4", start, end),
+                confirmCommand(6L, "b-6", start, end),
+                confirmCommand(6L, "b-7", start, end)
+        ));
+
+        assertEquals(List.of(true, false, false, false, true, false),
+                results.stream().map(RoomCommandResult::isSuccess).toList());
+        assertTrue(results.get(1).getError().contains("temporarily held"));
+        assertTrue(results.get(2).getError().contains("not available"));
+        assertEquals("Room not found", results.get(3).getError());
+        assertTrue(results.get(5).getError().contains("temporarily held"));
+
+        assertEquals(timesBookedBefore + 1, timesBooked(1L));
+        assertTrue(roomHoldRepository.findByRoomIdAndBookingId(1L, "b-1").isPresent());
+        assertTrue(roomHoldRepository.findByRoomIdAndBookingId(2L, "b-2").isEmpty());
+        assertTrue(roomHoldRepository.findByRoomIdAndBookingId(6L, "b-6").isPresent());
+    }
+
+    @Test
+    @Transactional
+    void confirmRoomsAvailability_rejectsRoomsWithoutHoldLock() {
+        roomHoldLockRepository.deleteById(5L);
+        roomHoldLockRepository.flush();
+        long timesBookedBefore = timesBooked(5L);
+        LocalDate start = LocalDate.now().plusDays(1);
+
+        List<RoomCommandResult> results = hotelService.confirmRoomsAvailability(List.of(
+                confirmCommand(4L, "b-4", start, start.plusDays(1)),
+                confirmCommand(5L, "b-5", start, start.plusDays(1))
+        ));
+
+        assertEquals(List.of(true, false), results.stream().map(RoomCommandResult::isSuccess).toList());
+        assertEquals("Room 5 has no hold lock", results.get(1).getError());
+        assertTrue(roomHoldRepository.findByRoomIdAndBookingId(5L, "b-5").isEmpty());
+        assertEquals(timesBookedBefore, timesBooked(5L));
+    }
+
+    @Test
+    @Transactional
+    void releaseRooms_releasesOwnHoldsOnly() {
+        LocalDate start = LocalDate.now().plusDays(1);
+        hotelService.confirmRoomsAvailability(List.of(
+                confirmCommand(4L, "b-4", start, start.plusDays(1)),
+                confirmCommand(5L, "b-5", start, start.plusDays(1))
+        ));
+
+        List<RoomCommandResult> results = hotelService.releaseRooms(List.of(
+                RoomReleaseCommand.builder().roomId(4L).bookingId("b-4").build(),
+                RoomReleaseCommand.builder().roomId(5L).bookingId("someone-else").build(),
+                RoomReleaseCommand.builder().roomId(999L).bookingId("b-9").build()
+        ));
+
+        assertEquals(List.of(true, true, false), results.stream().map(RoomCommandResult::isSuccess).toList());
+        assertTrue(roomHoldRepository.findByRoomIdAndBookingId(4L, "b-4").isEmpty());
+        assertTrue(roomHoldRepository.findByRoomIdAndBookingId(5L, "b-5").isPresent());
+    }
+
+    @Test
+    void confirmRoomsAvailability_rejectsOversizedBatch() {
+        List<RoomConfirmCommand> commands = new ArrayList<>();
+        for (int i = 0; i <= HotelService.MAX_BATCH_SIZE; i++) {
+            commands.add(RoomConfirmCommand.builder().roomId(1L).bookingId("b").build());
+        }
+        assertThrows(IllegalArgumentException.class, () -> hotelService.confirmRoomsAvailability(commands));
+    }
+
+    @Test
+    @Transactional
+    void holdExpiryScheduler_deletesExpiredHoldsButKeepsRenewedOnes() {
+        LocalDate day = LocalDate.now().plusDays(10);
+        hotelService.confirmRoomAvailability(1L, confirm("booking-1", day, day.plusDays(2)));
+        hotelService.confirmRoomAvailability(2L, confirm("booking-2", day, day.plusDays(2)));
+        hotelService.confirmRoomAvailability(4L, confirm("booking-3", day, day.plusDays(2)));
+        RoomHold renewed = roomHoldRepository.findByRoomIdAndBookingId(4L, "booking-3").orElseThrow();
+        renewed.setHoldUntil(OffsetDateTime.now().plusHours(1));
+        roomHoldRepository.save(renewed);
+
+        HoldExpiryProperties properties = new HoldExpiryProperties();
+        properties.setBatchSize(2);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Clock afterExpiry = Clock.offset(Clock.systemUTC(), HotelService.HOLD_DURATION.plusMinutes(1));
+        HoldExpiryScheduler scheduler = new HoldExpiryScheduler(
+                roomHoldRepository, transactionTemplate, properties, meterRegistry, afterExpiry);
+        roomHoldRepository.findAll().forEach(scheduler::schedule);
+        // as scheduled before the renewal
+        scheduler.schedule(RoomHold.builder().id(renewed.getId()).roomId(4L)
+                .holdUntil(OffsetDateTime.now().plus(HotelService.HOLD_DURATION)).build());
+
+        scheduler.sweep();
+
+        assertTrue(roomHoldRepository.findByRoomIdAndBookingId(1L, "booking-1").isEmpty());
+        assertTrue(roomHoldRepository.findByRoomIdAndBookingId(2L, "booking-2").isEmpty());
+        assertTrue(roomHoldRepository.findByRoomIdAndBookingId(4L, "booking-3").isPresent());
+        assertEquals(2.0, meterRegistry.get("hotel.holds.expired").counter().count());
+        assertEquals(0.0, meterRegistry.get("hotel.holds.active").gauge().value());
+        assertTrue(meterRegistry.get("hotel.holds.sweep.lag").timer().totalTime(TimeUnit.SECONDS) >= 60);
+    }
+
+    /**
+     * Times booked as served to clients: persisted count plus increments not flushed yet.
+     */
+    private long timesBooked(Long roomId) {
+        return hotelService.getAllAvailableRooms(null, null, null).getItems().stream()
+                .filter(room -> room.getId().equals(roomId))
+                .findFirst()
+                .orElseThrow()
+                .getTimesBooked();
+    }
+
+    private static ConfirmAvailabilityRequest confirm(String bookingId, LocalDate start, LocalDate end) {
+        return ConfirmAvailabilityRequest.builder()
+                .bookingId(bookingId)
+                .startDate(start)
+                .endDate(end)
+                .build();
+    }
+
+    private static RoomConfirmCommand confirmCommand(Long roomId, String bookingId, LocalDate start, LocalDate end) {
+        return RoomConfirmCommand.builder()
+                .roomId(roomId)
+                .bookingId(bookingId)
+                .startDate(start)
+                .endDate(end)
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.hotel.service;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+class RoomPopularityCountersTest {
+
+    private static final Long ROOM_ID = 1L;
+    private static final long OTHER_ROOMS = 1_000;
+
+    @Test
+    void pending_countsEveryIncrementOnceWhileFlushesRun() throws Exception {
+        // persisted.get(n): times booked in the database after n flushes
+        List<Long> persisted = new CopyOnWriteArrayList<>(List.of(0L));
+        JdbcTemplate jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> args = invocation.getArgument(1);
+            long flushed = args.stream().filter(row -> ROOM_ID.equals(row[1])).mapToLong(row -> (Long) row[0]).sum();
+            persisted.add(persisted.get(persisted.size() - 1) + flushed);
+            return new int[args.size()];
+        });
+        TransactionTemplate transactionTemplate = Mockito.mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        RoomPopularityCounters counters = new RoomPopularityCounters(jdbcTemplate, transactionTemplate);
+
+        AtomicLong started = new AtomicLong();
+        AtomicLong finished = new AtomicLong();
+        AtomicBoolean stop = new AtomicBoolean();
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            Future<?> writer = pool.submit(() -> {
+                while (!stop.get()) {
+                    started.incrementAndGet();
+                    counters.increment(ROOM_ID);
+                    finished.incrementAndGet();
+                    // other rooms make each flush drain many counters after this one
+                    for (long id = 2; id <= OTHER_ROOMS; id++) {
+                        counters.increment(id);
+                    }
+                }
+            });
+            Future<?> flusher = pool.submit(() -> {
+                while (!stop.get()) {
+                    counters.flush();
+                }
+            });
+            Future<?> reader = pool.submit(() -> {
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500);
+                while (System.nanoTime() < deadline) {
+                    long floor = finished.get();
+                    long flushes = counters.flushCount();
+                    long pending = counters.pending(ROOM_ID);
+                    if (flushes != counters.flushCount()) {
+                        continue;
+                    }
+                    long total = persisted.get((int) flushes) + pending;
+                    long ceiling = started.get();
+                    assertTrue(total >= floor && total <= ceiling,
+                            "counted " + total + " of " + floor + ".." + ceiling + " after " + flushes + " flushes");
+                }
+                stop.set(true);
+                return null;
+            });
+            reader.get(5, TimeUnit.SECONDS);
+            writer.get(5, TimeUnit.SECONDS);
+            flusher.get(5, TimeUnit.SECONDS);
+        } finally {
+            stop.set(true);
+            pool.shutdownNow();
+        }
+
+        counters.flush();
+        assertEquals(0, counters.pending(ROOM_ID));
+        assertEquals(finished.get(), persisted.get((int) counters.flushCount()));
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.hotel.service;
+
+import org.example.hotel.repository.RoomRank;
+import org.example.hotel.repository.RoomRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+class RoomRankingIndexTest {
+
+    private static final int ROOMS = 20;
+
+    /**
+     * rooms.times_booked as the database holds it, moved on by the counters' flushes.
+     */
+    private final Map<Long, AtomicLong> persisted = new ConcurrentHashMap<>();
+
+    @Test
+    void rebuild_succeedsAndStaysExactWhileConfirmsAndFlushesRun() throws Exception {
+        for (long id = 1; id <= ROOMS; id++) {
+            persisted.put(id, new AtomicLong(id % 4));
+        }
+        RoomPopularityCounters popularity = new RoomPopularityCounters(jdbcTemplate(), transactionTemplate());
+        RoomRepository roomRepository = Mockito.mock(RoomRepository.class);
+        when(roomRepository.findAvailableRanks()).thenAnswer(invocation -> {
+            List<RoomRank> ranks = new ArrayList<>();
+            persisted.forEach((id, timesBooked) -> {
+                ranks.add(new RoomRank(id, id % 2, String.valueOf(id), timesBooked.get()));
+                Thread.yield();
+            });
+            return ranks;
+        });
+        RoomRankingIndex index = new RoomRankingIndex(roomRepository, popularity);
+        index.subscribe();
+
+        Map<Long, Long> expected = new ConcurrentHashMap<>();
+        persisted.forEach((id, timesBooked) -> expected.put(id, timesBooked.get()));
+        AtomicBoolean stop = new AtomicBoolean();
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                writers.add(pool.submit(() -> {
+                    while (!stop.get()) {
+                        long roomId = ThreadLocalRandom.current().nextLong(1, ROOMS + 1);
+                        popularity.increment(roomId);
+                        expected.merge(roomId, 1L, Long::sum);
+                    }
+                }));
+            }
+            writers.add(pool.submit(() -> {
+                while (!stop.get()) {
+                    popularity.flush();
+                }
+            }));
+
+            for (int i = 0; i < 20; i++) {
+                index.rebuild();
+                assertTrue(index.isReady());
+            }
+            stop.set(true);
+            for (Future<?> writer : writers) {
+                writer.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            stop.set(true);
+            pool.shutdownNow();
+        }
+
+        List<RoomRank> expectedRanking = expected.entrySet().stream()
+                .map(e -> new RoomRank(e.getKey(), e.getKey() % 2, String.valueOf(e.getKey()), e.getValue()))
+                .sorted(RoomRankingIndex.RANK_ORDER)
+                .toList();
+        assertEquals(expectedRanking, index.page(null, RoomCursor.START, Integer.MAX_VALUE));
+        assertEquals(expectedRanking.stream().filter(room -> room.hotelId() == 1).toList(),
+                index.page(1L, RoomCursor.START, Integer.MAX_VALUE));
+
+        // and a reload from the database agrees once everything is flushed
+        popularity.flush();
+        index.rebuild();
+        assertEquals(expectedRanking, index.page(null, RoomCursor.START, Integer.MAX_VALUE));
+    }
+
+    private JdbcTemplate jdbcTemplate() {
+        JdbcTemplate jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> args = invocation.getArgument(1);
+            args.forEach(row -> persisted.get((Long) row[1]).addAndGet((Long) row[0]));
+            return new int[args.size()];
+        });
+        return jdbcTemplate;
+    }
+
+    private static TransactionTemplate transactionTemplate() {
+        TransactionTemplate transactionTemplate = Mockito.mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        return transactionTemplate;
+    }
+}